@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+/**
+ * Listener that is notified about the time spent in the different phases of
+ * building an {@link Injector}. All times are measured in nanoseconds.
+ * <p>
+ * If the injector is built
+ * {@link InjectorBuilder#parallel(java.util.concurrent.Executor) in parallel},
+ * then {@link #onInstantiate(String, Class, long)} may be invoked concurrently
+ * from the threads of the executor. If the injector is built using
+ * {@link InjectorBuilder#buildAsync(java.util.concurrent.Executor)}, then
+ * {@link #onInstantiate(String, Class, long)} may be invoked concurrently and
+ * {@link #onBuild(long)} is invoked once all the types have been instantiated,
+ * both from the threads of the executor passed to that method. All the other
+ * methods are always invoked from the thread that builds the injector, even if
+ * the types are analyzed in parallel.
+ * <p>
+ * To collect all the events into a report, use {@link BuildMetrics}.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ *
+ * @see InjectorBuilder#withListener(BuildListener)
+ */
+public interface BuildListener {
+
+    /**
+     * Invoked when {@link InjectorBuilder#fromProviders(String...)} has
+     * finished looking for providers.
+     *
+     * @param types  the number of types that were added
+     * @param nanos  the time spent scanning
+     */
+    default void onScan(int types, long nanos) {}
+
+    /**
+     * Invoked when the constructors and members of a type have been analyzed
+     * to find out what it depends on.
+     *
+     * @param qualifier  the qualifier of the type
+     * @param type       the type
+     * @param nanos      the time spent analyzing the type
+     */
+    default void onAnalyze(String qualifier, Class<?> type, long nanos) {}
+
+    /**
+     * Invoked when the order in which the types are instantiated has been
+     * determined. Types in the same layer don't depend on each other.
+     *
+     * @param layers    the number of layers in the resolved graph
+     * @param snapshot  {@code true} if the graph was loaded from a snapshot
+     * @param nanos     the time spent resolving the graph
+     */
+    default void onResolve(int layers, boolean snapshot, long nanos) {}
+
+    /**
+     * Invoked when a singleton has been instantiated during the build,
+     * including the time spent injecting its member variables.
+     *
+     * @param qualifier  the qualifier of the type
+     * @param type       the type
+     * @param nanos      the time spent instantiating the type
+     */
+    default void onInstantiate(String qualifier, Class<?> type, long nanos) {}
+
+    /**
+     * Invoked when the injector has been built.
+     *
+     * @param nanos  the total time spent in {@link InjectorBuilder#build()}
+     */
+    default void onBuild(long nanos) {}
+}
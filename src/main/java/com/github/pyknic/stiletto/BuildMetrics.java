@@ -0,0 +1,174 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import com.github.pyknic.stiletto.internal.BuildMetricsImpl;
+
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BuildListener} that collects the timings of every phase of the
+ * build so that they can be inspected afterwards. An instance of this
+ * interface is obtained using the static {@link #create()} constructor. The
+ * collected metrics accumulate if the same instance is used for multiple
+ * builds.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public interface BuildMetrics extends BuildListener {
+
+    /**
+     * Creates a new instance with no collected metrics.
+     *
+     * @return  the created instance
+     */
+    static BuildMetrics create() {
+        return new BuildMetricsImpl();
+    }
+
+    /**
+     * Returns the total time spent scanning for providers.
+     *
+     * @return  the scan time in nanoseconds
+     */
+    long getScanNanos();
+
+    /**
+     * Returns the total time spent analyzing types.
+     *
+     * @return  the analysis time in nanoseconds
+     */
+    long getAnalysisNanos();
+
+    /**
+     * Returns the total time spent resolving the dependency graph.
+     *
+     * @return  the resolution time in nanoseconds
+     */
+    long getResolveNanos();
+
+    /**
+     * Returns the total time spent instantiating types.
+     *
+     * @return  the instantiation time in nanoseconds
+     */
+    long getInstantiationNanos();
+
+    /**
+     * Returns the total time spent building injectors.
+     *
+     * @return  the build time in nanoseconds
+     */
+    long getBuildNanos();
+
+    /**
+     * Returns the number of layers in the most recently resolved graph, which
+     * is the number of rounds that the types had to be instantiated in.
+     *
+     * @return  the number of layers
+     */
+    int getLayers();
+
+    /**
+     * Returns the timings of all the components, with the ones that took the
+     * longest time to instantiate first.
+     *
+     * @return  all the components, slowest first
+     */
+    List<Component> getComponents();
+
+    /**
+     * Returns a human readable report of the collected metrics, listing at
+     * most {@code limit} of the slowest components.
+     *
+     * @param limit  the maximum number of components to list
+     * @return       the report
+     */
+    String report(int limit);
+
+    /**
+     * The timings of a single component (a type with a qualifier).
+     */
+    final class Component {
+
+        private final String qualifier;
+        private final Class<?> type;
+        private final long analysisNanos;
+        private final long instantiationNanos;
+
+        public Component(String qualifier,
+                         Class<?> type,
+                         long analysisNanos,
+                         long instantiationNanos) {
+
+            this.qualifier          = requireNonNull(qualifier);
+            this.type               = requireNonNull(type);
+            this.analysisNanos      = analysisNanos;
+            this.instantiationNanos = instantiationNanos;
+        }
+
+        /**
+         * Returns the qualifier of the component.
+         *
+         * @return  the qualifier
+         */
+        public String getQualifier() {
+            return qualifier;
+        }
+
+        /**
+         * Returns the type of the component.
+         *
+         * @return  the type
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Returns the time spent analyzing the type of the component.
+         *
+         * @return  the analysis time in nanoseconds
+         */
+        public long getAnalysisNanos() {
+            return analysisNanos;
+        }
+
+        /**
+         * Returns the time spent instantiating the component, or {@code 0} if
+         * it was not instantiated during the build.
+         *
+         * @return  the instantiation time in nanoseconds
+         */
+        public long getInstantiationNanos() {
+            return instantiationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "%s (%s): instantiation %.3f ms, analysis %.3f ms",
+                qualifier, type.getName(),
+                instantiationNanos / 1e6, analysisNanos / 1e6
+            );
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of how many lookups in a cache were answered by a cached
+ * value and how many required the value to be computed.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+
+    public CacheStatistics(long hits, long misses) {
+        if (hits < 0 || misses < 0) {
+            throw new IllegalArgumentException(
+                "Hits and misses can't be negative."
+            );
+        }
+
+        this.hits   = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Returns the number of lookups that were answered by a cached value.
+     *
+     * @return  the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that required the value to be computed.
+     *
+     * @return  the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the total number of lookups.
+     *
+     * @return  the number of lookups
+     */
+    public long getLookups() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the fraction of the lookups that were hits, or {@code 0} if
+     * there have been no lookups.
+     *
+     * @return  the hit ratio, between 0 and 1
+     */
+    public double getHitRatio() {
+        final long lookups = getLookups();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "CacheStatistics {hits: %d, misses: %d, hit ratio: %.3f}",
+            hits, misses, getHitRatio()
+        );
+    }
+}
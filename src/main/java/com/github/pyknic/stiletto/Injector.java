@@ -18,12 +18,19 @@ package com.github.pyknic.stiletto;
 
 import com.github.pyknic.stiletto.internal.InjectorBuilderImpl;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.github.pyknic.stiletto.InjectorException.unknownQualifierException;
 import static com.github.pyknic.stiletto.InjectorException.unknownTypeException;
+import static com.github.pyknic.stiletto.internal.util.ForkJoinUtil.forEachChunk;
 
 /**
  * An immutable injector that can be queried for instances of a particular
@@ -55,7 +62,7 @@ public interface Injector {
      * @return      {@code true} if instance is found, else {@code false}
      */
     default <T> boolean has(Class<T> type) {
-        return get(type).isPresent();
+        return getOrNull(type) != null;
     }
 
     /**
@@ -67,7 +74,27 @@ public interface Injector {
      * @return      the instance
      */
     default <T> T getOrThrow(Class<T> type) throws InjectorException {
-        return get(type).orElseThrow(() -> unknownTypeException(type));
+        final T instance = getOrNull(type);
+        if (instance == null) {
+            throw unknownTypeException(type);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the instance for the specified type or supertype. If no such
+     * exists, then {@code null} is returned. Unlike {@link #get(Class)}, this
+     * method does not need to wrap the result, making it suitable for
+     * frequently invoked code.
+     *
+     * @param <T>   the type
+     * @param type  the type
+     * @return      the instance, or {@code null}
+     *
+     * @since 1.0.5
+     */
+    default <T> T getOrNull(Class<T> type) {
+        return get(type).orElse(null);
     }
 
     /**
@@ -133,6 +160,81 @@ public interface Injector {
      */
     <T> T inject(T instance);
 
+    /**
+     * Sets any injectable fields in every instance of the specified iterable,
+     * as if {@link #inject(Object)} was invoked on each of them. Which fields
+     * to set is only determined once for every run of instances of the same
+     * class, so batches where the instances have few distinct classes are
+     * injected in a tight loop.
+     *
+     * @param <I>        the type of the iterable
+     * @param instances  the instances to apply dependency injection on
+     * @return           the same iterable
+     *
+     * @since 1.0.5
+     */
+    default <I extends Iterable<?>> I injectAll(I instances) {
+        instances.forEach(this::inject);
+        return instances;
+    }
+
+    /**
+     * Sets any injectable fields in every element of the specified array, as
+     * if {@link #inject(Object)} was invoked on each of them.
+     *
+     * @param <T>        the component type of the array
+     * @param instances  the instances to apply dependency injection on
+     * @return           the same array
+     *
+     * @see #injectAll(Iterable)
+     * @since 1.0.5
+     */
+    default <T> T[] injectAll(T[] instances) {
+        for (final T instance : instances) {
+            inject(instance);
+        }
+        return instances;
+    }
+
+    /**
+     * Sets any injectable fields in every instance of the specified
+     * collection, splitting the work across the threads of the specified
+     * pool. This is only faster than {@link #injectAll(Iterable)} for large
+     * batches.
+     *
+     * @param <C>        the type of the collection
+     * @param instances  the instances to apply dependency injection on
+     * @param pool       the pool to inject the instances in
+     * @return           the same collection
+     *
+     * @since 1.0.5
+     */
+    default <C extends Collection<?>> C injectAll(C instances, ForkJoinPool pool) {
+        injectAll(instances.toArray(), pool);
+        return instances;
+    }
+
+    /**
+     * Sets any injectable fields in every element of the specified array,
+     * splitting the work across the threads of the specified pool. This is
+     * only faster than {@link #injectAll(Object[])} for large batches.
+     *
+     * @param <T>        the component type of the array
+     * @param instances  the instances to apply dependency injection on
+     * @param pool       the pool to inject the instances in
+     * @return           the same array
+     *
+     * @since 1.0.5
+     */
+    default <T> T[] injectAll(T[] instances, ForkJoinPool pool) {
+        forEachChunk(pool, instances.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                inject(instances[i]);
+            }
+        });
+        return instances;
+    }
+
     /**
      * Creates a new instance of the specified class using a constructor
      * annotated with the {@link Inject}-annotation in first hand and any other
@@ -158,4 +260,176 @@ public interface Injector {
      * @return      creator for such instances
      */
     <T> Supplier<T> creator(Class<T> type);
+
+    /**
+     * Creates the specified number of new instances of the specified type.
+     * The constructor to use and the values to inject are only looked up
+     * once, as if {@link #creator(Class)} was invoked, after which every
+     * instance only costs a constructor invocation and the field injection.
+     *
+     * @param <T>    the type of the class to create
+     * @param type   the type to instantiate and apply dependency injection on
+     * @param count  the number of instances to create
+     * @return       modifiable list of the newly created instances
+     *
+     * @throws IllegalArgumentException  if {@code count} is negative
+     *
+     * @since 1.0.5
+     */
+    default <T> List<T> createMany(Class<T> type, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                "Count can't be negative, was " + count + "."
+            );
+        }
+
+        final Supplier<T> creator = creator(type);
+        final List<T> created = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            created.add(creator.get());
+        }
+        return created;
+    }
+
+    /**
+     * Creates the specified number of new instances of the specified type,
+     * splitting the work across the threads of the specified pool. This is
+     * only faster than {@link #createMany(Class, int)} if the constructor or
+     * any of the instances it receives does a significant amount of work.
+     *
+     * @param <T>    the type of the class to create
+     * @param type   the type to instantiate and apply dependency injection on
+     * @param count  the number of instances to create
+     * @param pool   the pool to create the instances in
+     * @return       fixed-size list of the newly created instances
+     *
+     * @throws IllegalArgumentException  if {@code count} is negative
+     *
+     * @since 1.0.5
+     */
+    default <T> List<T> createMany(Class<T> type, int count, ForkJoinPool pool) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                "Count can't be negative, was " + count + "."
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        final T[] created = (T[]) Array.newInstance(type, count);
+        return Arrays.asList(fill(created, pool));
+    }
+
+    /**
+     * Sets every element of the specified array to a new instance of the
+     * component type of the array. The constructor to use and the values to
+     * inject are only looked up once.
+     *
+     * @param <T>    the component type of the array
+     * @param array  the array to fill
+     * @return       the same array
+     *
+     * @since 1.0.5
+     */
+    default <T> T[] fill(T[] array) {
+        @SuppressWarnings("unchecked")
+        final Supplier<T> creator = creator(
+            (Class<T>) array.getClass().getComponentType()
+        );
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = creator.get();
+        }
+        return array;
+    }
+
+    /**
+     * Sets every element of the specified array to a new instance of the
+     * component type of the array, splitting the work across the threads of
+     * the specified pool. The constructor to use and the values to inject are
+     * only looked up once.
+     *
+     * @param <T>    the component type of the array
+     * @param array  the array to fill
+     * @param pool   the pool to create the instances in
+     * @return       the same array
+     *
+     * @since 1.0.5
+     */
+    default <T> T[] fill(T[] array, ForkJoinPool pool) {
+        @SuppressWarnings("unchecked")
+        final Supplier<T> creator = creator(
+            (Class<T>) array.getClass().getComponentType()
+        );
+
+        forEachChunk(pool, array.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                array[i] = creator.get();
+            }
+        });
+        return array;
+    }
+
+    /**
+     * Returns an infinite, sequential stream of new instances of the
+     * specified type. The constructor to use and the values to inject are
+     * looked up when this method is invoked, so the stream only needs to
+     * invoke the constructor for every element. Use
+     * {@link Stream#limit(long)} to create a finite number of instances.
+     *
+     * @param <T>   the type of the class to create
+     * @param type  the type to instantiate and apply dependency injection on
+     * @return      stream of newly created instances
+     *
+     * @since 1.0.5
+     */
+    default <T> Stream<T> generate(Class<T> type) {
+        return Stream.generate(creator(type));
+    }
+
+    /**
+     * Creates a builder for a child injector of this injector. The child only
+     * resolves and instantiates the types that are added to its builder, and
+     * looks up everything else in this injector. Types that are added to the
+     * child override those of this injector with the same qualifier or
+     * supertype, but only for the child and the types it creates. Instances
+     * in this injector keep the dependencies they were created with.
+     * <p>
+     * This makes it cheap to create many injectors that only differ in a few
+     * types, since the instances of this injector are shared instead of being
+     * recreated for every child.
+     *
+     * @return  builder for a child injector
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder child();
+
+    /**
+     * Creates a builder for a new injector with the same types as this one.
+     * Types that are added to the builder replace the types of this injector
+     * with the same qualifier, or are added if there is no such type. When
+     * the new injector is built, only the added types and the types that
+     * depend on them (directly or indirectly) are instantiated. All the other
+     * instances are shared with this injector, which is left unchanged.
+     * <p>
+     * This makes rebuilding an injector after a few types have changed
+     * proportional to the number of affected types rather than to the number
+     * of types in the injector.
+     *
+     * @return  builder for a derived injector
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder derive();
+
+    /**
+     * Returns statistics on how many invocations of {@link #create(Class)} and
+     * {@link #creator(Class)} could reuse the way of instantiating the type
+     * that was selected the first time it was requested from this injector.
+     *
+     * @return  statistics of the creator cache
+     *
+     * @since 1.0.5
+     */
+    CacheStatistics creatorCacheStatistics();
 }
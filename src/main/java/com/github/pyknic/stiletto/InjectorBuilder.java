@@ -16,9 +16,18 @@
  */
 package com.github.pyknic.stiletto;
 
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Builder for the {@link Injector} class. To create an instance of this
  * interface using the default implementation, use {@link Injector#builder()}.
+ * <p>
+ * The default implementation is thread safe, so types can be added from
+ * multiple threads concurrently. Types are built in the order that they were
+ * added, which for concurrent invocations is the order in which they were
+ * accepted by the builder.
  *
  * @author Emil Forslund
  * @since  1.0.0
@@ -57,6 +66,45 @@ public interface InjectorBuilder {
     default <T> InjectorBuilder withType(Class<T> clazz) {
         return withType(clazz, clazz.getName());
     }
+
+    /**
+     * Adds a type to the injector being built with the specified qualifier
+     * and {@link Scope}. The scope determines whether the same instance is
+     * returned every time the type is requested or injected. Any
+     * {@link Scoped}-annotation on the class is ignored.
+     * <p>
+     * Types that are not singletons are not instantiated when the injector is
+     * built. Singletons that depend on them get the instance that the scope
+     * returns when the singleton is created.
+     *
+     * @see #withType(Class, String)
+     *
+     * @param <T>        the injectable (implementation) type
+     * @param clazz      the class to be injectable
+     * @param qualifier  qualifier for the implementation
+     * @param scope      the scope of the type
+     * @return           this builder
+     *
+     * @since 1.0.5
+     */
+    <T> InjectorBuilder withType(Class<T> clazz, String qualifier, Scope scope);
+
+    /**
+     * Adds a type to the injector being built with the specified
+     * {@link Scope}, using the class name as qualifier.
+     *
+     * @see #withType(Class, String, Scope)
+     *
+     * @param <T>    the injectable (implementation) type
+     * @param clazz  the class to be injectable
+     * @param scope  the scope of the type
+     * @return       this builder
+     *
+     * @since 1.0.5
+     */
+    default <T> InjectorBuilder withType(Class<T> clazz, Scope scope) {
+        return withType(clazz, clazz.getName(), scope);
+    }
     
     /**
      * Adds all types that are annotated with the {@link Provider} annotation to
@@ -68,6 +116,23 @@ public interface InjectorBuilder {
      * {@link #withType(Class, String)} method.
      * <p>
      * For simple usage, you may leave the {@code scanSpec} parameter empty
+     * <p>
+     * If the classpath contains an index of providers generated at compile
+     * time by the {@link com.github.pyknic.stiletto.processor.InjectProcessor},
+     * then the index is used instead of scanning the classpath. Only providers
+     * that were compiled with the annotation processor are listed in the
+     * index. The classpath is still scanned if the {@code scanSpec} contains
+     * anything other than package names to include or exclude.
+     * <p>
+     * When the classpath is scanned, jars can limit the scan by listing the
+     * packages that contain providers, separated by commas, in the
+     * {@code Stiletto-Providers} attribute of their manifest. If the
+     * {@code scanSpec} doesn't name any packages to include, then the jars
+     * with the attribute are only scanned in the listed packages. Jars and
+     * directories without the attribute are still scanned in full. The
+     * analysis of the types that are found is deferred to {@link #build()},
+     * where it runs concurrently if an executor has been set using
+     * {@link #parallel(Executor)}.
      *
      * @param scanSpec  the scan specifications
      * @return          this builder
@@ -76,6 +141,85 @@ public interface InjectorBuilder {
      */
     InjectorBuilder fromProviders(String... scanSpec);
 
+    /**
+     * Makes the {@link #build()}-method instantiate types that don't depend on
+     * each other concurrently using the specified executor. Types are still
+     * instantiated in layers, where a layer only starts once all the types
+     * that it depends on have been created. The built injector will contain
+     * the same instances as if it had been built sequentially.
+     * <p>
+     * The executor is also used to analyze the constructors and members of
+     * all the added types concurrently before they are instantiated. The
+     * order that the types were added in is preserved.
+     * <p>
+     * If more than one type fails to be instantiated in the same layer, then
+     * the exception of the type that was added first to this builder is
+     * thrown, with the others added as suppressed exceptions.
+     *
+     * @param executor  the executor to instantiate types in
+     * @return          this builder
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder parallel(Executor executor);
+
+    /**
+     * Makes the {@link #build()}-method only validate that all the types can
+     * be resolved, without instantiating any of them. Instead, a type is
+     * instantiated the first time it (or a type that depends on it) is
+     * requested from the injector. Every type is still only instantiated
+     * once, even if it is requested concurrently from multiple threads.
+     * <p>
+     * Exceptions thrown while instantiating a type are thrown from the method
+     * that requested it rather than from {@link #build()}. Methods that return
+     * every instance, like {@link Injector#stream()}, will instantiate all the
+     * types. If this mode is used, then {@link #parallel(Executor)} has no
+     * effect.
+     *
+     * @return  this builder
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder lazy();
+
+    /**
+     * Makes the {@link #build()}-method use a snapshot of the resolved
+     * dependency graph stored in the specified file. If the file exists and
+     * was written for exactly the same types and qualifiers as have been added
+     * to this builder, and none of the class files of those types or their
+     * ancestors have changed since, then the analysis of the types and the
+     * resolution of the graph are skipped. Otherwise, the graph is resolved as
+     * usual and the snapshot is replaced.
+     * <p>
+     * Since a snapshot only contains the constructor that was selected for
+     * every type, the injector can't fall back to other constructors when
+     * {@link Injector#create(Class)} is invoked for an added type. If the
+     * snapshot can't be written, then the injector is built anyway. Builders
+     * of {@link Injector#child() child injectors} ignore the snapshot, since
+     * their graph also depends on the parent.
+     *
+     * @param file  the snapshot file
+     * @return      this builder
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder withSnapshot(Path file);
+
+    /**
+     * Adds a listener that is notified about the time spent in the different
+     * phases of the build, like scanning for providers, analyzing types and
+     * instantiating them. Use {@link BuildMetrics#create()} to collect the
+     * timings into a report. Only what happens after the listener has been
+     * added is reported, so add it before invoking
+     * {@link #fromProviders(String...)}.
+     *
+     * @param listener  the listener to add
+     * @return          this builder
+     *
+     * @since 1.0.5
+     */
+    InjectorBuilder withListener(BuildListener listener);
+
     /**
      * Builds the dependency injector, rendering it immutable. This builder
      * should <em>not</em> be used beyond this point.
@@ -84,4 +228,24 @@ public interface InjectorBuilder {
      */
     Injector build();
 
+    /**
+     * Builds the dependency injector like {@link #build()}, but instantiates
+     * the types asynchronously using the specified executor. Every type is
+     * instantiated as soon as the types it depends on have been, so types
+     * that don't depend on each other are instantiated concurrently and the
+     * time it takes is determined by the longest chain of dependencies rather
+     * than by the total number of types. The types are analyzed and the
+     * dependency graph is resolved before this method returns.
+     * <p>
+     * If the injector can't be built, then the returned future completes
+     * exceptionally with an {@link InjectorException}. This builder should
+     * <em>not</em> be used beyond this point.
+     *
+     * @param executor  the executor to instantiate the types with
+     * @return          future for the built instance
+     *
+     * @since 1.0.5
+     */
+    CompletableFuture<Injector> buildAsync(Executor executor);
+
 }
@@ -0,0 +1,233 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable snapshot of the statistics collected by an
+ * {@link InstrumentedInjector}.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class InjectorStatistics {
+
+    /**
+     * The operations that are measured.
+     */
+    public enum Operation {
+        GET, HAS, CREATE, CREATOR, BATCH, INJECT
+    }
+
+    private final List<Timing> timings;
+
+    public InjectorStatistics(List<Timing> timings) {
+        final List<Timing> sorted = new ArrayList<>(timings);
+        sorted.sort(comparingLong(Timing::getCount).reversed()
+            .thenComparing(t -> t.getType().getName())
+            .thenComparing(Timing::getOperation)
+        );
+        this.timings = unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns the timings of every type and operation that has been invoked at
+     * least once, with the most frequently invoked ones first.
+     *
+     * @return  list of timings
+     */
+    public List<Timing> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns the timing of the specified operation on the specified type, or
+     * empty if it has not been invoked.
+     *
+     * @param type       the type
+     * @param operation  the operation
+     * @return           the timing, or empty
+     */
+    public Optional<Timing> get(Class<?> type, Operation operation) {
+        return timings.stream()
+            .filter(t -> t.getType() == type && t.getOperation() == operation)
+            .findAny();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder str = new StringBuilder("InjectorStatistics {");
+        timings.forEach(t -> str.append("\n  ").append(t));
+        return str.append(timings.isEmpty() ? "}" : "\n}").toString();
+    }
+
+    /**
+     * The number of invocations of an operation on a type and how long they
+     * took. The latencies are recorded in a histogram where every power of two
+     * is divided into 8 buckets, so percentiles are accurate to within 12.5%.
+     */
+    public static final class Timing {
+
+        private final Class<?> type;
+        private final Operation operation;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] upperBounds;
+        private final long[] counts;
+
+        /**
+         * Creates a new timing. The histogram is given as two arrays of the
+         * same length, where {@code counts[i]} is the number of invocations
+         * that took at most {@code upperBounds[i]} nanoseconds (and more than
+         * {@code upperBounds[i - 1]}). The upper bounds must be increasing.
+         *
+         * @param type         the type
+         * @param operation    the operation
+         * @param count        the number of invocations
+         * @param totalNanos   the total time of all invocations
+         * @param maxNanos     the time of the slowest invocation
+         * @param upperBounds  the upper bound of every bucket
+         * @param counts       the number of invocations in every bucket
+         */
+        public Timing(Class<?> type,
+                      Operation operation,
+                      long count,
+                      long totalNanos,
+                      long maxNanos,
+                      long[] upperBounds,
+                      long[] counts) {
+
+            if (upperBounds.length != counts.length) {
+                throw new IllegalArgumentException(
+                    "Bucket bounds and counts must have the same length."
+                );
+            }
+
+            this.type        = requireNonNull(type);
+            this.operation   = requireNonNull(operation);
+            this.count       = count;
+            this.totalNanos  = totalNanos;
+            this.maxNanos    = maxNanos;
+            this.upperBounds = upperBounds.clone();
+            this.counts      = counts.clone();
+        }
+
+        /**
+         * Returns the type that the operation was invoked on.
+         *
+         * @return  the type
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Returns the operation that was invoked.
+         *
+         * @return  the operation
+         */
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Returns the number of invocations.
+         *
+         * @return  the number of invocations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the total time spent in all the invocations.
+         *
+         * @return  the total time in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Returns the time of the slowest invocation.
+         *
+         * @return  the maximum time in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns the mean time of the invocations.
+         *
+         * @return  the mean time in nanoseconds
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Returns an upper bound for the time within which the specified
+         * fraction of the invocations completed. For an example,
+         * {@code getPercentileNanos(0.99)} returns the 99th percentile.
+         *
+         * @param fraction  the fraction, between 0 and 1
+         * @return          the percentile in nanoseconds
+         */
+        public long getPercentileNanos(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException(
+                    "Fraction must be between 0 and 1, was " + fraction + "."
+                );
+            }
+
+            final long total = LongStream.of(counts).sum();
+            final long target = (long) Math.ceil(fraction * total);
+
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(upperBounds[i], maxNanos);
+                }
+            }
+
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "%s %s: count %d, mean %.1f us, p50 %.1f us, " +
+                "p99 %.1f us, max %.1f us",
+                operation, type.getName(), count, getMeanNanos() / 1e3,
+                getPercentileNanos(0.5) / 1e3, getPercentileNanos(0.99) / 1e3,
+                maxNanos / 1e3
+            );
+        }
+    }
+}
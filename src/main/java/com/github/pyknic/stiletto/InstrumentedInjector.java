@@ -0,0 +1,78 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import com.github.pyknic.stiletto.internal.InstrumentedInjectorImpl;
+
+/**
+ * An {@link Injector} that measures how many times, and how long it takes, to
+ * get, create and inject instances of every type. An instance is obtained by
+ * wrapping an existing injector using the static {@link #wrap(Injector)}
+ * method. The wrapped injector is not affected, so code that uses it directly
+ * does not pay for the instrumentation.
+ * <p>
+ * The following operations are measured:
+ * <ul>
+ *     <li>{@link InjectorStatistics.Operation#GET}: all methods that get an
+ *         instance by type or qualifier, measured per requested type (or per
+ *         type of the returned instance, when a qualifier is used);
+ *     <li>{@link InjectorStatistics.Operation#HAS}: {@link #has(Class)} and
+ *         {@link #has(String)};
+ *     <li>{@link InjectorStatistics.Operation#CREATE}: {@link #create(Class)};
+ *     <li>{@link InjectorStatistics.Operation#CREATOR}: every invocation of a
+ *         supplier returned by {@link #creator(Class)};
+ *     <li>{@link InjectorStatistics.Operation#BATCH}: every invocation of
+ *         {@link #createMany(Class, int)}, {@link #fill(Object[])} and their
+ *         parallel versions, measured once for the whole batch, and every
+ *         element of a stream returned by {@link #generate(Class)};
+ *     <li>{@link InjectorStatistics.Operation#INJECT}: {@link #inject(Object)},
+ *         measured per type of the injected instance.
+ * </ul>
+ * Operations by qualifier that don't find an instance have no type to be
+ * measured for, so they are measured for {@code Object}. The same goes for
+ * {@link #has(String)}, since it never looks up the instance.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public interface InstrumentedInjector extends Injector {
+
+    /**
+     * Returns an instrumented injector that delegates to the specified one.
+     *
+     * @param injector  the injector to instrument
+     * @return          the instrumented injector
+     */
+    static InstrumentedInjector wrap(Injector injector) {
+        return new InstrumentedInjectorImpl(injector);
+    }
+
+    /**
+     * Returns an immutable snapshot of the statistics collected since this
+     * injector was created or last {@link #reset()}.
+     *
+     * @return  the statistics
+     */
+    InjectorStatistics statistics();
+
+    /**
+     * Discards all the statistics collected so far. Operations that are in
+     * progress while this method is invoked may or may not be included in the
+     * next snapshot.
+     */
+    void reset();
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+/**
+ * A {@link Scope} that retains one instance of every type per scope key.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ *
+ * @see Scope#keyed(java.util.function.Supplier, int)
+ */
+public interface KeyedScope extends Scope {
+
+    /**
+     * Discards all the instances that have been created for the specified
+     * scope key, for an example when a request has been completed.
+     *
+     * @param key  the scope key
+     */
+    void close(Object key);
+}
@@ -0,0 +1,40 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+/**
+ * A {@link Scope} that recycles instances once they are no longer used.
+ *
+ * @param <T>  the pooled type
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ *
+ * @see Scope#pooled(int, java.util.function.Consumer)
+ */
+public interface PooledScope<T> extends Scope {
+
+    /**
+     * Resets the specified instance and returns it to the pool, so that it can
+     * be reused the next time an instance is requested. If the pool is full,
+     * then the instance is discarded. The instance must not be used by the
+     * caller after this method has been invoked.
+     *
+     * @param instance  the instance to release
+     */
+    void release(T instance);
+}
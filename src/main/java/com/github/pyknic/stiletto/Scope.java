@@ -0,0 +1,114 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import com.github.pyknic.stiletto.internal.scope.KeyedScopeImpl;
+import com.github.pyknic.stiletto.internal.scope.PooledScopeImpl;
+import com.github.pyknic.stiletto.internal.scope.PrototypeScope;
+import com.github.pyknic.stiletto.internal.scope.SingletonScope;
+import com.github.pyknic.stiletto.internal.scope.ThreadScope;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Determines the lifetime of the instances of a type that has been added to
+ * an {@link Injector}. By default, all types are {@link #singleton()
+ * singletons}, meaning that the injector creates exactly one instance of them.
+ * Other scopes are invoked every time an instance is requested and decide
+ * whether to create a new instance or to reuse an existing one.
+ * <p>
+ * A scope is given to the builder using
+ * {@link InjectorBuilder#withType(Class, String, Scope)}, or declared on the
+ * class using the {@link Scoped}-annotation.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@FunctionalInterface
+public interface Scope {
+
+    /**
+     * Returns the scope where the injector only creates one instance of the
+     * type. This is the default scope.
+     *
+     * @return  the singleton scope
+     */
+    static Scope singleton() {
+        return SingletonScope.INSTANCE;
+    }
+
+    /**
+     * Returns the scope where a new instance is created every time the type is
+     * requested.
+     *
+     * @return  the prototype scope
+     */
+    static Scope prototype() {
+        return PrototypeScope.INSTANCE;
+    }
+
+    /**
+     * Creates a new scope where every thread gets its own instance of each
+     * type in the scope.
+     *
+     * @return  the created scope
+     */
+    static Scope thread() {
+        return new ThreadScope();
+    }
+
+    /**
+     * Creates a new scope where one instance is created for every scope key,
+     * for an example one per request. The current scope key is obtained from
+     * the specified supplier every time an instance is requested. Only the
+     * instances of the most recently used keys are retained.
+     *
+     * @param key          supplier of the current scope key
+     * @param maximumKeys  the maximum number of keys to retain instances for
+     * @return             the created scope
+     */
+    static KeyedScope keyed(Supplier<?> key, int maximumKeys) {
+        return new KeyedScopeImpl(key, maximumKeys);
+    }
+
+    /**
+     * Creates a new scope that reuses instances that have been
+     * {@link PooledScope#release(Object) released} back to the scope, and only
+     * creates a new instance if there are none available. At most
+     * {@code capacity} released instances are retained. A pooled scope should
+     * only be used for one type.
+     *
+     * @param <T>       the pooled type
+     * @param capacity  the maximum number of instances to retain
+     * @param reset     hook invoked on an instance when it is released
+     * @return          the created scope
+     */
+    static <T> PooledScope<T> pooled(int capacity, Consumer<? super T> reset) {
+        return new PooledScopeImpl<>(capacity, reset);
+    }
+
+    /**
+     * Returns an instance with the specified qualifier, either by reusing an
+     * existing instance or by invoking the specified creator.
+     *
+     * @param qualifier  the qualifier of the type
+     * @param creator    creates a new instance
+     * @return           the instance to use
+     */
+    Object get(String qualifier, Supplier<?> creator);
+}
@@ -0,0 +1,71 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Declares the {@link Scope} of a type. The annotation is only used if no
+ * scope is specified when the type is added to the {@link InjectorBuilder}.
+ * Types without this annotation are singletons.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface Scoped {
+
+    /**
+     * The scope of the annotated type.
+     *
+     * @return  the scope
+     */
+    Kind value();
+
+    /**
+     * The scopes that can be declared using the annotation.
+     */
+    enum Kind {
+
+        /**
+         * Only one instance is created.
+         *
+         * @see Scope#singleton()
+         */
+        SINGLETON,
+
+        /**
+         * A new instance is created every time.
+         *
+         * @see Scope#prototype()
+         */
+        PROTOTYPE,
+
+        /**
+         * One instance is created per thread. All the types that are declared
+         * with this scope in the same builder share a scope.
+         *
+         * @see Scope#thread()
+         */
+        THREAD
+    }
+}
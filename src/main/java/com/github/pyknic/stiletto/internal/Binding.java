@@ -0,0 +1,63 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Placeholder that is stored in an {@link InstanceStore} instead of an
+ * instance when the instance should not be created while the injector is
+ * built. The instance is obtained by invoking {@link #get()}.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+abstract class Binding {
+
+    /**
+     * Returns the instance that this binding represents, creating it if
+     * necessary.
+     *
+     * @return  the instance
+     */
+    abstract Object get();
+
+    /**
+     * Returns the instance represented by the specified value if it is a
+     * binding, or else the value itself.
+     *
+     * @param value  instance or binding
+     * @return       the instance
+     */
+    static Object unwrap(Object value) {
+        return value instanceof Binding ? ((Binding) value).get() : value;
+    }
+
+    /**
+     * Returns a copy of the specified map where every binding has been
+     * replaced by the instance that it represents.
+     *
+     * @param values  instances or bindings by qualifier
+     * @return        instances by qualifier
+     */
+    static Map<String, Object> unwrapAll(Map<String, Object> values) {
+        final Map<String, Object> unwrapped = new HashMap<>();
+        values.forEach((q, value) -> unwrapped.put(q, unwrap(value)));
+        return unwrapped;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.BuildMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Default implementation of the {@link BuildMetrics}-interface. All the
+ * counters are thread safe, so that the same instance can be notified from
+ * multiple threads.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class BuildMetricsImpl implements BuildMetrics {
+
+    private final LongAdder scanNanos;
+    private final LongAdder analysisNanos;
+    private final LongAdder resolveNanos;
+    private final LongAdder instantiationNanos;
+    private final LongAdder buildNanos;
+    private final Map<String, Class<?>> types;
+    private final Map<String, Long> analysis;
+    private final Map<String, Long> instantiation;
+    private volatile int layers;
+
+    public BuildMetricsImpl() {
+        this.scanNanos          = new LongAdder();
+        this.analysisNanos      = new LongAdder();
+        this.resolveNanos       = new LongAdder();
+        this.instantiationNanos = new LongAdder();
+        this.buildNanos         = new LongAdder();
+        this.types              = new ConcurrentHashMap<>();
+        this.analysis           = new ConcurrentHashMap<>();
+        this.instantiation      = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onScan(int types, long nanos) {
+        scanNanos.add(nanos);
+    }
+
+    @Override
+    public void onAnalyze(String qualifier, Class<?> type, long nanos) {
+        analysisNanos.add(nanos);
+        types.put(qualifier, type);
+        analysis.merge(qualifier, nanos, Long::sum);
+    }
+
+    @Override
+    public void onResolve(int layers, boolean snapshot, long nanos) {
+        resolveNanos.add(nanos);
+        this.layers = layers;
+    }
+
+    @Override
+    public void onInstantiate(String qualifier, Class<?> type, long nanos) {
+        instantiationNanos.add(nanos);
+        types.put(qualifier, type);
+        instantiation.merge(qualifier, nanos, Long::sum);
+    }
+
+    @Override
+    public void onBuild(long nanos) {
+        buildNanos.add(nanos);
+    }
+
+    @Override
+    public long getScanNanos() {
+        return scanNanos.sum();
+    }
+
+    @Override
+    public long getAnalysisNanos() {
+        return analysisNanos.sum();
+    }
+
+    @Override
+    public long getResolveNanos() {
+        return resolveNanos.sum();
+    }
+
+    @Override
+    public long getInstantiationNanos() {
+        return instantiationNanos.sum();
+    }
+
+    @Override
+    public long getBuildNanos() {
+        return buildNanos.sum();
+    }
+
+    @Override
+    public int getLayers() {
+        return layers;
+    }
+
+    @Override
+    public List<Component> getComponents() {
+        final List<Component> components = new ArrayList<>();
+        types.forEach((qualifier, type) -> components.add(new Component(
+            qualifier, type,
+            analysis.getOrDefault(qualifier, 0L),
+            instantiation.getOrDefault(qualifier, 0L)
+        )));
+
+        components.sort(
+            comparingLong(Component::getInstantiationNanos)
+                .thenComparingLong(Component::getAnalysisNanos)
+                .reversed()
+                .thenComparing(Component::getQualifier)
+        );
+
+        return components;
+    }
+
+    @Override
+    public String report(int limit) {
+        final StringBuilder str = new StringBuilder(String.format(Locale.ROOT,
+            "Build: %.3f ms (scan %.3f ms, analysis %.3f ms, " +
+            "resolve %.3f ms in %d layers, instantiation %.3f ms)",
+            getBuildNanos() / 1e6, getScanNanos() / 1e6,
+            getAnalysisNanos() / 1e6, getResolveNanos() / 1e6,
+            getLayers(), getInstantiationNanos() / 1e6
+        ));
+
+        final List<Component> components = getComponents();
+        if (!components.isEmpty() && limit > 0) {
+            str.append("\nSlowest components:");
+            components.stream().limit(limit).forEach(c ->
+                str.append("\n  ").append(c)
+            );
+        }
+
+        return str.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report(10);
+    }
+}
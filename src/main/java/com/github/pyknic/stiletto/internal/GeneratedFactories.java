@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.processor.GeneratedFactory;
+
+import java.util.Optional;
+
+/**
+ * Locates the {@link GeneratedFactory} of a class, if the class was compiled
+ * with the annotation processor. The result is cached for every class.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class GeneratedFactories {
+
+    private static final ClassValue<Optional<GeneratedFactory<?>>> FACTORIES =
+        new ClassValue<Optional<GeneratedFactory<?>>>() {
+            @Override
+            protected Optional<GeneratedFactory<?>> computeValue(Class<?> type) {
+                return load(type);
+            }
+        };
+
+    /**
+     * Returns the generated factory for the specified type, or an empty
+     * {@code Optional} if none exists.
+     *
+     * @param <T>   the type
+     * @param type  the type
+     * @return      the generated factory, or empty
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Optional<GeneratedFactory<T>> find(Class<T> type) {
+        return FACTORIES.get(type).map(f -> (GeneratedFactory<T>) f);
+    }
+
+    private static Optional<GeneratedFactory<?>> load(Class<?> type) {
+        final Class<?> factory;
+        try {
+            factory = Class.forName(
+                GeneratedFactory.factoryName(type.getName()),
+                true, type.getClassLoader()
+            );
+        } catch (final ClassNotFoundException | LinkageError ex) {
+            return Optional.empty();
+        }
+
+        if (!GeneratedFactory.class.isAssignableFrom(factory)) {
+            return Optional.empty();
+        }
+
+        try {
+            final GeneratedFactory<?> instance =
+                (GeneratedFactory<?>) factory.getConstructor().newInstance();
+
+            // Make sure the factory was generated for this exact class and not
+            // for a class that happens to have a similar name.
+            return instance.type() == type
+                ? Optional.of(instance)
+                : Optional.empty();
+        } catch (final ReflectiveOperationException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private GeneratedFactories() {}
+}
@@ -16,24 +16,41 @@
  */
 package com.github.pyknic.stiletto.internal;
 
+import com.github.pyknic.stiletto.BuildListener;
 import com.github.pyknic.stiletto.Injector;
 import com.github.pyknic.stiletto.InjectorBuilder;
 import com.github.pyknic.stiletto.InjectorException;
 import com.github.pyknic.stiletto.Provider;
+import com.github.pyknic.stiletto.Scope;
+import com.github.pyknic.stiletto.Scoped;
+import com.github.pyknic.stiletto.internal.graph.LazyDependency;
 import com.github.pyknic.stiletto.internal.graph.Node;
-import com.speedment.stream.MapStream;
+import com.github.pyknic.stiletto.internal.graph.QualifierTable;
 import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 import static com.github.pyknic.stiletto.internal.InjectorBuilderUtil.findNodes;
-import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.traverseAncestors;
+import static com.github.pyknic.stiletto.internal.graph.DependencyResolver.resolve;
+import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.ancestors;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableMap;
-import static java.util.stream.Collectors.joining;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 
 /**
- * Default implementation of the {@link InjectorBuilder}-interface.
+ * Default implementation of the {@link InjectorBuilder}-interface. All the
+ * methods of this class are thread safe. Types are registered while holding
+ * the monitor of the builder, so the order in which they are built is the
+ * order in which the registrations acquired it.
  *
  * @author Emil Forslund
  * @since  1.0.0
@@ -41,88 +58,904 @@ import static java.util.stream.Collectors.joining;
 public final class InjectorBuilderImpl implements InjectorBuilder {
 
     public static InjectorBuilder builder() {
-        return new InjectorBuilderImpl();
+        return new InjectorBuilderImpl(null, null);
     }
 
-    private final Map<String, Set<Node<?>>> injectables;
+    /**
+     * Creates a new builder for an injector that only resolves and stores the
+     * types that are added to it, and that looks up everything else in the
+     * specified parent.
+     *
+     * @param parent  the parent injector
+     * @return        the created builder
+     *
+     * @since 1.0.5
+     */
+    static InjectorBuilder childOf(InjectorImpl parent) {
+        return new InjectorBuilderImpl(requireNonNull(parent), null);
+    }
 
-    private InjectorBuilderImpl() {
-        this.injectables = new LinkedHashMap<>();
+    /**
+     * Creates a new builder that has the same types, scopes and parent as the
+     * specified injector. When it is built, only the types that are added to
+     * the builder and the types that depend on them (directly or indirectly)
+     * are instantiated. Everything else is reused from the specified
+     * injector.
+     *
+     * @param previous  the injector to derive from
+     * @return          the created builder
+     *
+     * @since 1.0.5
+     */
+    static InjectorBuilder derivedFrom(InjectorImpl previous) {
+        return new InjectorBuilderImpl(previous.parent(), requireNonNull(previous));
+    }
+
+    private final InjectorImpl parent;
+    private final InjectorImpl previous;
+    private final Set<String> changed;
+    private final Map<String, Class<?>> types;
+    private final Map<String, Scope> scopes;
+    private final List<BuildListener> listeners;
+    private Scope threadScope;
+    private Executor executor;
+    private boolean lazy;
+    private Path snapshot;
+
+    private InjectorBuilderImpl(InjectorImpl parent, InjectorImpl previous) {
+        this.parent    = parent;
+        this.previous  = previous;
+        this.changed   = new HashSet<>();
+        this.types     = new LinkedHashMap<>();
+        this.scopes    = new HashMap<>();
+        this.listeners = new ArrayList<>();
+
+        if (previous != null) {
+            final ResolvedGraph graph = previous.graph();
+            types.putAll(graph.types());
+            scopes.putAll(graph.scopes());
+            lazy = graph.isLazy();
+        }
     }
 
     @Override
-    public <T> InjectorBuilder withType(Class<T> clazz, String qualifier) {
-        injectables.put(qualifier, findNodes(clazz, qualifier));
+    public synchronized <T> InjectorBuilder withType(Class<T> clazz,
+                                                     String qualifier) {
+        return withType(clazz, qualifier, declaredScope(clazz));
+    }
+
+    @Override
+    public synchronized <T> InjectorBuilder withType(Class<T> clazz,
+                                        String qualifier,
+                                        Scope scope) {
+        types.put(requireNonNull(qualifier), requireNonNull(clazz));
+        if (previous != null) {
+            changed.add(qualifier);
+        }
+
+        if (requireNonNull(scope) == Scope.singleton()) {
+            scopes.remove(qualifier);
+        } else {
+            scopes.put(qualifier, scope);
+        }
+
         return this;
     }
 
     @Override
     public InjectorBuilder fromProviders(String... scanSpec) {
-        new FastClasspathScanner(scanSpec)
-            .matchClassesWithAnnotation(Provider.class, c -> {
-                final Provider p = c.getAnnotation(Provider.class);
-                if (p.value().isEmpty()) {
-                    InjectorBuilderImpl.this.withType(c);
-                } else {
-                    InjectorBuilderImpl.this.withType(c, p.value());
-                }
-            }).scan();
+        final long start = System.nanoTime();
+
+        // The monitor is not held while scanning, so that other threads can
+        // keep registering types in the meantime.
+        final int found  = addProviders(scanSpec);
+        final long nanos = System.nanoTime() - start;
+
+        synchronized (this) {
+            listeners.forEach(l -> l.onScan(found, nanos));
+        }
 
         return this;
     }
-    
-    @Override
-    public Injector build() {
-        final Map<String, Object> byQualifier = new HashMap<>();
-        final Map<Class<?>, Object> byType    = new HashMap<>();
-
-        final Predicate<Node<?>> canBeInstantiated =
-            i -> i.getDependencies().stream()
-                .allMatch(byQualifier.keySet()::contains);
-
-        final Map<String, Set<Node<?>>> nodes =
-            unmodifiableMap(new LinkedHashMap<>(injectables));
-
-        while (!injectables.isEmpty()) {
-            final Set<String> resolved = new HashSet<>();
-
-            MapStream.of(injectables)
-                .flatMapValue(v -> v.stream()
-                    .filter(canBeInstantiated)
-                    .limit(1)
-                ).forEachOrdered(i -> {
-                final Object inst = i.getValue().instantiate(byQualifier);
-
-                byQualifier.put(i.getKey(), inst);
-                resolved.add(i.getKey());
-
-                traverseAncestors(inst.getClass())
-                    .forEach(c -> {
-                        byType.put(c, inst);
-                        byQualifier.put(c.getName(), inst);
-                    });
-            });
 
-            if (resolved.size() == 0) {
-                throw new InjectorException(
-                    "Error! Can't resolve dependencies for the " +
-                    "following qualifiers: " + injectables.keySet() +
-                    ".\nThe following dependencies have not been resolved: [\n" +
-                        injectables.values().stream()
-                            .flatMap(Set::stream)
-                            .map(i -> "  " + i.getQualifier() + " -> [\n    " +
-                                i.getDependencies().stream()
-                                 .filter(d -> !byQualifier.keySet().contains(d))
-                                 .collect(joining(",\n    "))
-                            )
-                            .collect(joining(",\n")) +
-                    "]."
+    /**
+     * Adds all the providers that match the specified scan specification,
+     * either by reading the provider index or by scanning the classpath. If
+     * the classpath is scanned, then jars that declare their packages in
+     * {@link ProviderManifest manifests} are only scanned in those packages,
+     * and every scan is executed by one worker thread per available processor.
+     * The providers that are found are added while holding the monitor once,
+     * so that they are registered together.
+     *
+     * @param scanSpec  the scan specifications
+     * @return          the number of providers that were added
+     */
+    private int addProviders(String... scanSpec) {
+        final ClassLoader context = Thread.currentThread().getContextClassLoader();
+        final ClassLoader loader  = context == null
+            ? InjectorBuilderImpl.class.getClassLoader()
+            : context;
+
+        // Use the index generated at compile time if there is one, since that
+        // is much faster than scanning the classpath.
+        final Map<Class<?>, String> providers = ProviderIndex
+            .load(loader, scanSpec)
+            .orElseGet(() -> scanProviders(loader, scanSpec));
+
+        synchronized (this) {
+            providers.forEach((c, qualifier) -> withType(
+                c, qualifier.isEmpty() ? c.getName() : qualifier
+            ));
+        }
+
+        return providers.size();
+    }
+
+    /**
+     * Scans the classpath for classes with the {@link Provider}-annotation
+     * and returns them mapped to the qualifiers from their annotations. An
+     * empty qualifier means that the class name should be used.
+     *
+     * @param loader    the class loader to read manifests from
+     * @param scanSpec  the scan specifications
+     * @return          the providers found
+     */
+    private Map<Class<?>, String> scanProviders(ClassLoader loader,
+                                                String... scanSpec) {
+
+        final Map<Class<?>, String> providers = new LinkedHashMap<>();
+        final List<String[]> scanSpecs = ProviderManifest.narrow(
+            scanSpec, ProviderManifest.declaredPackages(loader)
+        );
+
+        for (final String[] spec : scanSpecs) {
+            final FastClasspathScanner scanner = new FastClasspathScanner(spec)
+                .matchClassesWithAnnotation(Provider.class, c ->
+                    providers.put(c, c.getAnnotation(Provider.class).value())
                 );
+
+            // The scanner runs in its own worker pool rather than the executor
+            // of the builder, since its tasks wait for each other and could
+            // starve a pool with fewer threads.
+            scanner.scan(Runtime.getRuntime().availableProcessors());
+        }
+
+        return providers;
+    }
+
+    @Override
+    public synchronized InjectorBuilder parallel(Executor executor) {
+        this.executor = requireNonNull(executor);
+        return this;
+    }
+
+    @Override
+    public synchronized InjectorBuilder lazy() {
+        this.lazy = true;
+        return this;
+    }
+
+    @Override
+    public synchronized InjectorBuilder withSnapshot(Path file) {
+        this.snapshot = requireNonNull(file);
+        return this;
+    }
+
+    @Override
+    public synchronized InjectorBuilder withListener(BuildListener listener) {
+        listeners.add(requireNonNull(listener));
+        return this;
+    }
+
+    @Override
+    public synchronized Injector build() {
+        final Build build = prepare();
+
+        for (final List<Node<?>> layer : build.layers) {
+            if (executor == null || lazy) {
+                layer.forEach(n -> {
+                    final Object[] deps = build.dependencies(n);
+                    final Object inst = build.create(n, deps, build.byQualifier);
+                    build.store(n, inst, deps);
+                });
             } else {
-                resolved.forEach(injectables::remove);
+                final List<Object[]> deps = layer.stream()
+                    .map(build::dependencies)
+                    .collect(toList());
+
+                final Object[] created = instantiateAll(build, layer, deps);
+                for (int i = 0; i < created.length; i++) {
+                    build.store(layer.get(i), created[i], deps.get(i));
+                }
+            }
+        }
+
+        return build.finish();
+    }
+
+    @Override
+    public CompletableFuture<Injector> buildAsync(Executor executor) {
+        requireNonNull(executor);
+
+        final Build build;
+        try {
+            synchronized (this) {
+                build = prepare();
+            }
+        } catch (final RuntimeException ex) {
+            final CompletableFuture<Injector> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+
+        return build.instantiateAsync(executor);
+    }
+
+    /**
+     * Finds the nodes of all the registered types and resolves the dependency
+     * graph, either by analyzing the types or by reading the snapshot. The
+     * returned build has its own copy of everything in this builder that is
+     * needed to instantiate the graph.
+     *
+     * @return  the prepared build
+     */
+    private Build prepare() {
+        final long start = System.nanoTime();
+
+        final QualifierTable qualifiers = new QualifierTable();
+
+        // The graph of a child also depends on the parent, which is not part
+        // of the snapshot, so child builders never use snapshots.
+        final Path file = parent == null ? snapshot : null;
+
+        final Optional<List<List<Node<?>>>> snapshotted = file == null
+            ? Optional.empty()
+            : PlanSnapshot.read(file, types);
+
+        final Map<String, Set<Node<?>>> nodes = new LinkedHashMap<>();
+        final List<List<Node<?>>> layers;
+
+        if (snapshotted.isPresent()) {
+            // The snapshot only contains the selected node of every type, so
+            // that is the only one that can be used by the injector later.
+            layers = snapshotted.get();
+            layers.stream().flatMap(List::stream)
+                .forEach(n -> nodes.put(n.getQualifier(), singleton(n)));
+
+            final long nanos = System.nanoTime() - start;
+            listeners.forEach(l -> l.onResolve(layers.size(), true, nanos));
+        } else {
+            nodes.putAll(analyzeAll());
+
+            final long resolveStart = System.nanoTime();
+            layers = parent == null
+                ? resolve(unmodifiableMap(nodes), qualifiers)
+                : resolve(unmodifiableMap(nodes), qualifiers,
+                    parent.store()::resolvable);
+
+            final long nanos = System.nanoTime() - resolveStart;
+            listeners.forEach(l -> l.onResolve(layers.size(), false, nanos));
+
+            if (file != null) {
+                PlanSnapshot.write(file, types, layers);
+            }
+        }
+
+        return new Build(start, this, qualifiers, nodes, layers);
+    }
+
+    /**
+     * Analyzes all the registered types to find the nodes that can be used to
+     * instantiate them. If an {@link #executor} has been specified, then the
+     * types are analyzed concurrently, but the listeners are still notified
+     * from the calling thread once all of them are done. Types that have not
+     * been changed since the injector this builder was derived from are not
+     * analyzed again. The returned map has the same order as the types were
+     * registered in, regardless of which analysis completes first.
+     *
+     * @return  the nodes of every type, mapped by qualifier
+     */
+    private Map<String, Set<Node<?>>> analyzeAll() {
+        final Map<String, Set<Node<?>>> nodes = new LinkedHashMap<>();
+
+        if (executor == null) {
+            types.forEach((q, c) -> {
+                final Set<Node<?>> reused = reuseNodes(q);
+                nodes.put(q, reused == null ? analyze(q, c) : reused);
+            });
+        } else {
+            final List<String> qualifiers = new ArrayList<>(types.keySet());
+            final long[] nanos = new long[qualifiers.size()];
+            final boolean[] analyzed = new boolean[qualifiers.size()];
+
+            final List<CompletableFuture<Set<Node<?>>>> futures =
+                new ArrayList<>(qualifiers.size());
+
+            for (int i = 0; i < qualifiers.size(); i++) {
+                final int index = i;
+                final String q = qualifiers.get(i);
+                final Set<Node<?>> reused = reuseNodes(q);
+
+                if (reused == null) {
+                    analyzed[i] = true;
+                    futures.add(CompletableFuture.supplyAsync(() -> {
+                        final long start = System.nanoTime();
+                        final Set<Node<?>> found = findNodes(types.get(q), q);
+                        nanos[index] = System.nanoTime() - start;
+                        return found;
+                    }, executor));
+                } else {
+                    futures.add(CompletableFuture.completedFuture(reused));
+                }
+            }
+
+            final List<Set<Node<?>>> found = joinAll(futures,
+                i -> "Error! Failed to analyze qualifier " +
+                    qualifiers.get(i) + "."
+            );
+
+            for (int i = 0; i < found.size(); i++) {
+                final String q = qualifiers.get(i);
+                nodes.put(q, found.get(i));
+
+                if (analyzed[i]) {
+                    final Class<?> type = types.get(q);
+                    final long time = nanos[i];
+                    listeners.forEach(l -> l.onAnalyze(q, type, time));
+                }
             }
         }
 
-        return new InjectorImpl(byQualifier, byType, nodes);
+        return nodes;
+    }
+
+    /**
+     * Returns the nodes that were found for the specified qualifier by the
+     * injector this builder was derived from, or {@code null} if the type of
+     * the qualifier must be analyzed again.
+     *
+     * @param qualifier  the qualifier
+     * @return           the previous nodes, or {@code null}
+     */
+    private Set<Node<?>> reuseNodes(String qualifier) {
+        if (previous == null || changed.contains(qualifier)) {
+            return null;
+        }
+        return previous.graph().nodes().get(qualifier);
+    }
+
+    /**
+     * Finds the nodes that can be used to instantiate the specified type and
+     * notifies the listeners about how long it took.
+     *
+     * @param qualifier  the qualifier
+     * @param type       the type
+     * @return           the nodes
+     */
+    private Set<Node<?>> analyze(String qualifier, Class<?> type) {
+        final long start = System.nanoTime();
+        final Set<Node<?>> nodes = findNodes(type, qualifier);
+
+        final long nanos = System.nanoTime() - start;
+        listeners.forEach(l -> l.onAnalyze(qualifier, type, nanos));
+
+        return nodes;
+    }
+
+    /**
+     * Instantiates all the specified nodes concurrently using the
+     * {@link #executor} and returns the instances in the same order as the
+     * nodes. This method blocks until all of the nodes have been processed.
+     * If any nodes fail, the exception of the first one is thrown.
+     *
+     * @param build         the build
+     * @param layer         the nodes to instantiate
+     * @param dependencies  the dependencies of every node
+     * @return              the created instances
+     */
+    private Object[] instantiateAll(Build build,
+                                    List<Node<?>> layer,
+                                    List<Object[]> dependencies) {
+
+        return joinAll(
+            IntStream.range(0, layer.size())
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                    () -> build.create(
+                        layer.get(i), dependencies.get(i), build.byQualifier
+                    ), executor
+                )).collect(toList()),
+            i -> "Error! Failed to instantiate qualifier " +
+                layer.get(i).getQualifier() + "."
+        ).toArray();
+    }
+
+    /**
+     * Waits for all the specified futures to complete and returns their
+     * results in the same order. If any of them fail, then the exception of
+     * the first one is thrown, with the exceptions of the others added as
+     * suppressed exceptions. If several futures failed because of the same
+     * exception, it is only included once. Exceptions that are not
+     * {@link InjectorException InjectorExceptions} are wrapped in one, using
+     * the specified function to create the message.
+     *
+     * @param <T>      the result type
+     * @param futures  the futures to wait for
+     * @param message  function from index to error message
+     * @return         the results
+     */
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures,
+                                       IntFunction<String> message) {
+
+        final List<T> results = new ArrayList<>(futures.size());
+        final Set<Throwable> causes =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+        InjectorException failure = null;
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (final CompletionException ex) {
+                if (!causes.add(ex.getCause())) {
+                    continue;
+                }
+
+                final InjectorException cause =
+                    ex.getCause() instanceof InjectorException
+                        ? (InjectorException) ex.getCause()
+                        : new InjectorException(message.apply(i), ex.getCause());
+
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the scope declared on the specified class using the
+     * {@link Scoped}-annotation, or the singleton scope if there is no such
+     * annotation.
+     *
+     * @param clazz  the class
+     * @return       the declared scope
+     *
+     * @throws InjectorException  if the annotation declares a scope that is
+     *                            not supported by this version
+     */
+    private Scope declaredScope(Class<?> clazz) {
+        final Scoped scoped = clazz.getAnnotation(Scoped.class);
+        if (scoped == null) {
+            return Scope.singleton();
+        }
+
+        switch (scoped.value()) {
+            case SINGLETON : return Scope.singleton();
+            case PROTOTYPE : return Scope.prototype();
+            case THREAD    :
+                if (threadScope == null) {
+                    threadScope = Scope.thread();
+                }
+                return threadScope;
+            // Only reachable if the class was compiled against a newer
+            // version of the annotation that has more kinds of scopes.
+            default : throw new InjectorException(
+                "Error! The class " + clazz.getName() + " is annotated with " +
+                scoped + ", but the scope " + scoped.value() +
+                " is not supported."
+            );
+        }
+    }
+
+    /**
+     * The state of a build once the dependency graph has been resolved.
+     * Everything that is needed to instantiate the graph is copied from the
+     * builder, so that the instantiation can continue after the monitor of the
+     * builder has been released.
+     */
+    private static final class Build {
+
+        private final long start;
+        private final InjectorImpl parent;
+        private final InjectorImpl previous;
+        private final Map<String, Class<?>> types;
+        private final Map<String, Scope> scopes;
+        private final Set<String> changed;
+        private final List<BuildListener> listeners;
+        private final boolean lazy;
+
+        private final Map<String, Set<Node<?>>> nodes;
+        private final List<List<Node<?>>> layers;
+
+        private final InstanceStore byQualifier;
+        private final Map<Class<?>, Object> byType;
+        private final Map<String, Node<?>> selected;
+        private final Map<String, Object> instances;
+        private final Map<String, Object[]> dependencies;
+        private final Set<String> reused;
+
+        Build(long start,
+              InjectorBuilderImpl builder,
+              QualifierTable qualifiers,
+              Map<String, Set<Node<?>>> nodes,
+              List<List<Node<?>>> layers) {
+
+            this.start     = start;
+            this.parent    = builder.parent;
+            this.previous  = builder.previous;
+            this.types     = new LinkedHashMap<>(builder.types);
+            this.scopes    = new HashMap<>(builder.scopes);
+            this.changed   = new HashSet<>(builder.changed);
+            this.listeners = new ArrayList<>(builder.listeners);
+            this.lazy      = builder.lazy;
+            this.nodes     = nodes;
+            this.layers    = layers;
+
+            this.byQualifier  = new InstanceStore(
+                qualifiers, parent == null ? null : parent.store()
+            );
+
+            this.byType       = new HashMap<>();
+            this.selected     = new HashMap<>();
+            this.instances    = new HashMap<>();
+            this.dependencies = new HashMap<>();
+            this.reused       = previous == null ? emptySet() : reusable();
+        }
+
+        /**
+         * Returns the instances and bindings that the dependencies of the
+         * specified node currently refer to, in the iteration order of
+         * {@link Node#getDependencies()}.
+         *
+         * @param node  the node
+         * @return      the dependencies
+         */
+        Object[] dependencies(Node<?> node) {
+            final Object[] values = new Object[node.getDependencies().size()];
+            int i = 0;
+            for (final String dep : node.getDependencies()) {
+                values[i++] = byQualifier.raw(dep);
+            }
+            return values;
+        }
+
+        /**
+         * Returns what should be stored for the specified node. If the node
+         * can be {@link #reuse(Node) reused}, then the previous
+         * instance or binding is returned. If the node is a singleton and the
+         * build is not lazy, then the node is instantiated. Otherwise, a
+         * {@link Binding} is returned that refers to the specified
+         * dependencies.
+         *
+         * @param node  the node
+         * @param deps  the dependencies, as returned by
+         *              {@link #dependencies(Node)}
+         * @param view  map view of the dependencies that unwraps bindings, or
+         *              {@code null} to create one from {@code deps}
+         * @return      the instance or binding to store
+         */
+        Object create(Node<?> node, Object[] deps, Map<String, Object> view) {
+            final Object reused = reuse(node);
+            if (reused != null) {
+                return reused;
+            }
+
+            final Scope scope = scopes.get(node.getQualifier());
+            if (scope == null && !lazy) {
+                final Map<String, Object> values = view == null
+                    ? Binding.unwrapAll(toMap(node, deps))
+                    : view;
+
+                final long started = System.nanoTime();
+                final Object instance = node.instantiate(values);
+
+                final long nanos = System.nanoTime() - started;
+                listeners.forEach(l -> l.onInstantiate(
+                    node.getQualifier(), node.getType(), nanos
+                ));
+
+                return instance;
+            }
+
+            return scope == null
+                ? new LazyInstance(node, toMap(node, deps))
+                : new ScopedInstance(node, scope, toMap(node, deps));
+        }
+
+        /**
+         * Returns the instance or binding that the injector the builder was
+         * derived from stored for the specified node, or {@code null} if the
+         * node must be created again.
+         *
+         * @param node  the node
+         * @return      the previous instance or binding, or {@code null}
+         *
+         * @see #reusable()
+         */
+        private Object reuse(Node<?> node) {
+            return reused.contains(node.getQualifier())
+                ? previous.graph().instance(node.getQualifier())
+                : null;
+        }
+
+        /**
+         * Determines which qualifiers can reuse the instance or binding of the
+         * injector the builder was derived from. A node is reused if its type
+         * has not been changed, the same node was selected for the qualifier
+         * and every dependency refers to the same instance as when the node
+         * was created in the previous injector. A dependency that is provided
+         * by another node in the graph only refers to the same instance if
+         * that node is reused as well, so any node that depends on a node
+         * that is created again (directly or indirectly) is also created
+         * again.
+         * <p>
+         * A {@link LazyDependency lazy dependency} refers to a supplier of the
+         * store it was created in, so it is compared by the instance that the
+         * supplier returns instead. That instance is the same if the lazy
+         * target was not replaced.
+         *
+         * @return  the qualifiers of the nodes to reuse
+         */
+        private Set<String> reusable() {
+
+            // The qualifier of the node that every name will refer to once
+            // everything has been stored, which is what lazy dependencies see.
+            final Map<String, String> providers = new HashMap<>();
+            layers.forEach(layer -> layer.forEach(n -> provide(providers, n)));
+
+            // Other dependencies only see the nodes that were stored before.
+            final Map<String, String> stored = new HashMap<>();
+            final Map<String, Set<String>> requires = new HashMap<>();
+            for (final List<Node<?>> layer : layers) {
+                for (final Node<?> node : layer) {
+                    final Set<String> required = requires(node, providers, stored);
+                    if (required != null) {
+                        requires.put(node.getQualifier(), required);
+                    }
+                    provide(stored, node);
+                }
+            }
+
+            // Candidates that require a node that is created again are also
+            // created again, and so are the candidates that require them.
+            final Map<String, List<String>> dependents = new HashMap<>();
+            final Deque<String> excluded = new ArrayDeque<>();
+            requires.forEach((qualifier, required) -> required.forEach(r -> {
+                dependents.computeIfAbsent(r, k -> new ArrayList<>()).add(qualifier);
+                if (!requires.containsKey(r)) {
+                    excluded.add(qualifier);
+                }
+            }));
+
+            final Set<String> reusable = new HashSet<>(requires.keySet());
+            while (!excluded.isEmpty()) {
+                final String qualifier = excluded.poll();
+                if (reusable.remove(qualifier)) {
+                    excluded.addAll(dependents.getOrDefault(qualifier, emptyList()));
+                }
+            }
+
+            return reusable;
+        }
+
+        /**
+         * Returns the qualifiers of the other nodes that must be reused for
+         * the specified node to be reused, or {@code null} if it can't be
+         * reused regardless.
+         *
+         * @param node       the node
+         * @param providers  the providers of every name once all are stored
+         * @param stored     the providers of every name stored so far
+         * @return           the required qualifiers, or {@code null}
+         */
+        private Set<String> requires(Node<?> node,
+                                     Map<String, String> providers,
+                                     Map<String, String> stored) {
+
+            final ResolvedGraph graph = previous.graph();
+            final InstanceStore before = previous.store();
+            final String qualifier = node.getQualifier();
+
+            if (changed.contains(qualifier) || graph.selected(qualifier) != node) {
+                return null;
+            }
+
+            final Object[] values = graph.dependencies(qualifier);
+            final Set<String> required = new HashSet<>();
+            int i = 0;
+
+            for (final String dep : node.getDependencies()) {
+                final Object value = values[i++];
+                final String name;
+                final String provider;
+                final Object expected;
+
+                if (LazyDependency.isKey(dep)
+                &&  !providers.containsKey(dep)
+                &&  byQualifier.provided(dep) == null) {
+                    if (before.provided(dep) != null) {
+                        return null;
+                    }
+
+                    name     = LazyDependency.qualifier(dep);
+                    provider = providers.get(name);
+                    expected = before.raw(name);
+                } else {
+                    name     = dep;
+                    provider = stored.get(name);
+                    expected = value;
+                }
+
+                if (provider == null) {
+                    if (byQualifier.raw(name) != expected) {
+                        return null;
+                    }
+                } else if (graph.instance(provider) == expected) {
+                    required.add(provider);
+                } else {
+                    return null;
+                }
+            }
+
+            return required;
+        }
+
+        /**
+         * Maps every name that the specified node provides to its qualifier.
+         *
+         * @param providers  the map to add the names to
+         * @param node       the node
+         */
+        private static void provide(Map<String, String> providers, Node<?> node) {
+            final String qualifier = node.getQualifier();
+            providers.put(qualifier, qualifier);
+            for (final Class<?> c : ancestors(node.getType())) {
+                providers.put(c.getName(), qualifier);
+            }
+            for (final String key : LazyDependency.provided(node.getType())) {
+                providers.put(key, qualifier);
+            }
+        }
+
+        /**
+         * Stores the specified instance or binding under the qualifier of the
+         * specified node as well as under all of its ancestors.
+         *
+         * @param node  the node
+         * @param inst  the instance or binding
+         * @param deps  what the dependencies of the node referred to
+         */
+        void store(Node<?> node, Object inst, Object[] deps) {
+            final QualifierTable qualifiers = byQualifier.qualifiers();
+            byQualifier.put(qualifiers.intern(node.getQualifier()), inst);
+
+            final Class<?> type = inst instanceof Binding
+                ? node.getType() : inst.getClass();
+
+            for (final Class<?> c : ancestors(type)) {
+                byType.put(c, inst);
+                byQualifier.put(qualifiers.intern(c.getName()), inst);
+            }
+
+            for (final String key : LazyDependency.provided(type)) {
+                byQualifier.put(qualifiers.intern(key), inst);
+            }
+
+            selected.put(node.getQualifier(), node);
+            instances.put(node.getQualifier(), inst);
+            dependencies.put(node.getQualifier(), deps);
+        }
+
+        /**
+         * Instantiates the graph using the specified executor, without
+         * waiting for one layer to complete before the next is started. Every
+         * node is instantiated as soon as the nodes that it depends on have
+         * been, so independent nodes are instantiated concurrently. A
+         * dependency refers to the same node as it would if the nodes were
+         * instantiated one at a time, in order.
+         *
+         * @param executor  the executor to instantiate nodes with
+         * @return          future for the built injector
+         */
+        CompletableFuture<Injector> instantiateAsync(Executor executor) {
+            final List<Node<?>> ordered = layers.stream()
+                .flatMap(List::stream)
+                .collect(toList());
+
+            final List<CompletableFuture<Object>> futures = new ArrayList<>();
+            final Object[][] seen = new Object[ordered.size()][];
+            final Map<String, CompletableFuture<Object>> providers = new HashMap<>();
+
+            for (int i = 0; i < ordered.size(); i++) {
+                final int index = i;
+                final Node<?> node = ordered.get(i);
+
+                // Dependencies that are not provided by any node in the graph
+                // are provided by the parent or are lazy, and are left as
+                // null.
+                final List<CompletableFuture<Object>> inputs = node
+                    .getDependencies().stream()
+                    .map(providers::get)
+                    .collect(toList());
+
+                final CompletableFuture<Object> future = CompletableFuture
+                    .allOf(inputs.stream()
+                        .filter(Objects::nonNull)
+                        .toArray(CompletableFuture<?>[]::new))
+                    .thenApplyAsync(v -> {
+                        final Object[] deps = new Object[inputs.size()];
+                        int j = 0;
+                        for (final String dep : node.getDependencies()) {
+                            final CompletableFuture<Object> input = inputs.get(j);
+                            deps[j++] = input == null
+                                ? byQualifier.raw(dep)
+                                : input.join();
+                        }
+
+                        seen[index] = deps;
+                        return create(node, deps, null);
+                    }, executor);
+
+                futures.add(future);
+                providers.put(node.getQualifier(), future);
+                for (final Class<?> c : ancestors(node.getType())) {
+                    providers.put(c.getName(), future);
+                }
+                for (final String key : LazyDependency.provided(node.getType())) {
+                    providers.put(key, future);
+                }
+            }
+
+            return CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handle((v, ex) -> {
+                    final List<Object> created = joinAll(futures,
+                        i -> "Error! Failed to instantiate qualifier " +
+                            ordered.get(i).getQualifier() + "."
+                    );
+
+                    for (int i = 0; i < created.size(); i++) {
+                        store(ordered.get(i), created.get(i), seen[i]);
+                    }
+
+                    return finish();
+                });
+        }
+
+        /**
+         * Creates the injector from everything that has been stored and
+         * notifies the listeners that the build is complete.
+         *
+         * @return  the built injector
+         */
+        Injector finish() {
+            final ResolvedGraph graph = new ResolvedGraph(
+                types, scopes, nodes, selected, instances, dependencies, lazy
+            );
+
+            final Injector injector =
+                new InjectorImpl(byQualifier, byType, graph, parent);
+
+            final long nanos = System.nanoTime() - start;
+            listeners.forEach(l -> l.onBuild(nanos));
+
+            return injector;
+        }
+
+        private static Map<String, Object> toMap(Node<?> node, Object[] deps) {
+            final Map<String, Object> map = new HashMap<>();
+            int i = 0;
+            for (final String dep : node.getDependencies()) {
+                map.put(dep, deps[i++]);
+            }
+            return map;
+        }
     }
 }
@@ -17,21 +17,23 @@
 package com.github.pyknic.stiletto.internal;
 
 import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.internal.graph.GeneratedNode;
+import com.github.pyknic.stiletto.internal.graph.InjectionPlan;
+import com.github.pyknic.stiletto.internal.graph.LazyDependency;
 import com.github.pyknic.stiletto.internal.graph.Node;
 import com.github.pyknic.stiletto.internal.graph.NodeImpl;
-import com.github.pyknic.stiletto.internal.util.StringUtil;
+import com.github.pyknic.stiletto.processor.GeneratedFactory;
 
 import java.lang.reflect.Constructor;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.traverseFields;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableSet;
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toSet;
 
 /**
  * Utility class to reduce code in {@link InjectorBuilderImpl} and
@@ -49,6 +51,9 @@ final class InjectorBuilderUtil {
      * comes with. If at least one constructor has the
      * {@link Inject}-annotation, then only constructors with that annotation
      * will be considered.
+     * <p>
+     * If a {@link GeneratedFactory} has been generated for the class at compile
+     * time, then a single node that uses the factory is returned instead.
      *
      * @param <T>        the type
      * @param clazz      the class to get nodes for
@@ -58,14 +63,18 @@ final class InjectorBuilderUtil {
      */
     static <T> Set<Node<?>> findNodes(Class<T> clazz, String qualifier) {
 
+        // If the class was compiled with the annotation processor, use the
+        // generated factory instead of reflection.
+        final Optional<GeneratedFactory<T>> factory =
+            GeneratedFactories.find(clazz);
+
+        if (factory.isPresent()) {
+            return singleton(new GeneratedNode<>(qualifier, factory.get()));
+        }
+
         // Determine if there are any members that need to be injected.
-        final Set<String> dependencies = unmodifiableSet(traverseFields(clazz)
-            .filter(f -> f.getAnnotation(Inject.class) != null)
-            .map(f -> ofNullable(f.getAnnotation(Inject.class))
-                .map(Inject::value).filter(StringUtil::notEmpty)
-                .orElseGet(() -> f.getType().getName())
-            ).collect(toSet())
-        );
+        final Set<String> dependencies =
+            InjectionPlan.of(clazz).getDependencies();
 
         // If the specified type has at least one annotated constructor, we
         // should only look at them. Otherwise, consider all constructors
@@ -82,10 +91,11 @@ final class InjectorBuilderUtil {
             final Set<String> deps = new HashSet<>(dependencies);
 
             Stream.of(constr.getParameters())
-                .map(p -> ofNullable(p.getAnnotation(Inject.class))
-                    .map(Inject::value).filter(StringUtil::notEmpty)
-                    .orElseGet(() -> p.getType().getName())
-                ).forEach(deps::add);
+                .map(p -> LazyDependency.of(
+                    p.getType(),
+                    p.getParameterizedType(),
+                    p.getAnnotation(Inject.class)
+                )).forEach(deps::add);
 
             nodes.add(new NodeImpl<>(
                 qualifier,
@@ -16,49 +16,120 @@
  */
 package com.github.pyknic.stiletto.internal;
 
-import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.CacheStatistics;
 import com.github.pyknic.stiletto.Injector;
+import com.github.pyknic.stiletto.InjectorBuilder;
 import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.internal.graph.InjectionPlan;
 import com.github.pyknic.stiletto.internal.graph.Node;
-import com.github.pyknic.stiletto.internal.util.StringUtil;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.github.pyknic.stiletto.internal.InjectorBuilderUtil.findNodes;
-import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.traverseFields;
+import static com.github.pyknic.stiletto.internal.util.ForkJoinUtil.forEachChunk;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
-import static java.util.Optional.ofNullable;
 
 /**
- * Default implementation of the {@link Injector}-interface.
+ * Default implementation of the {@link Injector}-interface. An injector can
+ * have a parent injector, in which case anything that is not found in this
+ * injector is looked up in the parent.
+ * <p>
+ * The way to instantiate a type with {@link #create(Class)} is only selected
+ * once per type, after which it is cached in the injector.
  *
  * @author Emil Forslund
  * @since  1.0.0
  */
 public final class InjectorImpl implements Injector {
 
-    private final Map<Class<?>, Object> byType;
-    private final Map<String, Object> byQualifier;
+    private final TypeTable byType;
+    private final InstanceStore byQualifier;
     private final Map<String, Set<Node<?>>> nodes;
+    private final ResolvedGraph graph;
+    private final InjectorImpl parent;
+    private final ConcurrentHashMap<Class<?>, Consumer<Object>> injections;
+    private final ConcurrentHashMap<Class<?>, Supplier<?>> creators;
+    private final LongAdder creatorLookups;
+    private final LongAdder creatorMisses;
 
-    InjectorImpl(final Map<String, Object> byQualifier,
+    InjectorImpl(final InstanceStore byQualifier,
                  final Map<Class<?>, Object> byType,
-                 final Map<String, Set<Node<?>>> nodes) {
+                 final ResolvedGraph graph,
+                 final InjectorImpl parent) {
 
-        this.byQualifier = requireNonNull(byQualifier);
-        this.byType      = requireNonNull(byType);
-        this.nodes       = requireNonNull(nodes);
+        this.byQualifier    = requireNonNull(byQualifier);
+        this.byType         = new TypeTable(requireNonNull(byType));
+        this.graph          = requireNonNull(graph);
+        this.nodes          = graph.nodes();
+        this.parent         = parent;
+        this.injections     = new ConcurrentHashMap<>();
+        this.creators       = new ConcurrentHashMap<>();
+        this.creatorLookups = new LongAdder();
+        this.creatorMisses  = new LongAdder();
+    }
+
+    /**
+     * Returns the store of this injector, which falls back to the stores of
+     * its parents.
+     *
+     * @return  the instance store
+     */
+    InstanceStore store() {
+        return byQualifier;
+    }
+
+    /**
+     * Returns the graph that this injector was built from.
+     *
+     * @return  the resolved graph
+     */
+    ResolvedGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the parent of this injector, or {@code null} if it has none.
+     *
+     * @return  the parent, or {@code null}
+     */
+    InjectorImpl parent() {
+        return parent;
+    }
+
+    @Override
+    public <T> boolean has(Class<T> type) {
+        return byType.get(type) != null
+            || (parent != null && parent.has(type));
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> Optional<T> get(Class<T> type) {
-        return Optional.ofNullable((T) byType.get(type));
+        return Optional.ofNullable(getOrNull(type));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrNull(Class<T> type) {
+        final Object raw = byType.get(type);
+        if (raw == null && parent != null) {
+            return parent.getOrNull(type);
+        }
+        return (T) Binding.unwrap(raw);
+    }
+
+    @Override
+    public boolean has(String qualifier) {
+        return byQualifier.containsKey(qualifier);
     }
 
     @Override
@@ -69,7 +140,9 @@ public final class InjectorImpl implements Injector {
 
     @Override
     public Stream<Object> stream() {
-        return byQualifier.values().stream();
+        return byQualifier.raw()
+            .filter(inst -> !(inst instanceof ScopedInstance))
+            .map(Binding::unwrap);
     }
 
     @Override
@@ -78,8 +151,92 @@ public final class InjectorImpl implements Injector {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> Supplier<T> creator(Class<T> type) {
-        Set<Node<?>> nodes = this.nodes.get(type.getName());
+        creatorLookups.increment();
+        final Supplier<?> cached = creators.get(type);
+        return (Supplier<T>) (cached == null
+            ? creators.computeIfAbsent(type, t -> {
+                creatorMisses.increment();
+                return selectCreator(t);
+            })
+            : cached);
+    }
+
+    @Override
+    public CacheStatistics creatorCacheStatistics() {
+        final long misses = creatorMisses.sum();
+        return new CacheStatistics(
+            Math.max(0, creatorLookups.sum() - misses), misses
+        );
+    }
+
+    @Override
+    public InjectorBuilder child() {
+        return InjectorBuilderImpl.childOf(this);
+    }
+
+    @Override
+    public InjectorBuilder derive() {
+        return InjectorBuilderImpl.derivedFrom(this);
+    }
+
+    @Override
+    public <T> T inject(T instance) {
+        injection(instance.getClass()).accept(instance);
+        return instance;
+    }
+
+    @Override
+    public <I extends Iterable<?>> I injectAll(I instances) {
+        Class<?> type = null;
+        Consumer<Object> injection = null;
+
+        for (final Object instance : instances) {
+            if (instance.getClass() != type) {
+                type      = instance.getClass();
+                injection = injection(type);
+            }
+            injection.accept(instance);
+        }
+
+        return instances;
+    }
+
+    @Override
+    public <T> T[] injectAll(T[] instances) {
+        injectRange(instances, 0, instances.length);
+        return instances;
+    }
+
+    @Override
+    public <C extends Collection<?>> C injectAll(C instances, ForkJoinPool pool) {
+        injectAll(instances.toArray(), pool);
+        return instances;
+    }
+
+    @Override
+    public <T> T[] injectAll(T[] instances, ForkJoinPool pool) {
+        forEachChunk(pool, instances.length, (from, to) ->
+            injectRange(instances, from, to)
+        );
+        return instances;
+    }
+
+    /**
+     * Selects the first node of the specified type where all the dependencies
+     * are available in this injector and returns a supplier that uses it. If
+     * the type was not added when the injector was built, then its nodes are
+     * found using reflection (or a generated factory).
+     *
+     * @param <T>   the instance type
+     * @param type  the type to instantiate
+     * @return      creator for such instances
+     *
+     * @throws InjectorException  if no node can be used
+     */
+    private <T> Supplier<T> selectCreator(Class<T> type) {
+        Set<Node<?>> nodes = nodes(type.getName());
         if (nodes == null || nodes.isEmpty()) {
             nodes = findNodes(type, type.getName());
         }
@@ -93,10 +250,16 @@ public final class InjectorImpl implements Injector {
             return nodes.stream()
                 .filter(n -> n.getDependencies().stream()
                     .allMatch(byQualifier::containsKey))
-                .map(n -> (Supplier<T>) () -> {
+                .map(n -> {
                     @SuppressWarnings("unchecked")
                     final Node<T> tNode = (Node<T>) n;
-                    return tNode.instantiate(byQualifier);
+
+                    if (isScoped(tNode.getDependencies())) {
+                        final InstanceStore store = byQualifier;
+                        return (Supplier<T>) () -> tNode.instantiate(store);
+                    } else {
+                        return tNode.creator(byQualifier);
+                    }
                 })
                 .findFirst().orElseThrow(() -> new InjectorException(format(
                     "Could not find any constructor for '%s' where all " +
@@ -107,55 +270,90 @@ public final class InjectorImpl implements Injector {
         }
     }
 
-    @Override
-    public <T> T inject(T instance) {
-        final Class<?> clazz = instance.getClass();
-        traverseFields(clazz)
-            .filter(f -> f.getAnnotation(Inject.class) != null)
-            .forEachOrdered(f -> {
-                final String qualifier = ofNullable(f.getAnnotation(Inject.class))
-                    .map(Inject::value).filter(StringUtil::notEmpty)
-                    .orElseGet(() -> f.getType().getName());
-
-                if (!byQualifier.containsKey(qualifier)) {
-                    throw new InjectorException(format(
-                        "Field '%s' in class '%s' has the qualifier '%s' " +
-                        "which is not injectable.",
-                        f.getName(), clazz.getName(), qualifier
-                    ));
-                }
-
-                final Object value = byQualifier.get(qualifier);
-                try {
-                    f.setAccessible(true);
-                    if (f.getType() == long.class) {
-                        f.setLong(instance, (Long) value);
-                    } else if (f.getType() == int.class) {
-                        f.setInt(instance, (Integer) value);
-                    } else if (f.getType() == short.class) {
-                        f.setShort(instance, (Short) value);
-                    } else if (f.getType() == byte.class) {
-                        f.setByte(instance, (Byte) value);
-                    } else if (f.getType() == double.class) {
-                        f.setDouble(instance, (Double) value);
-                    } else if (f.getType() == float.class) {
-                        f.setFloat(instance, (Float) value);
-                    } else if (f.getType() == char.class) {
-                        f.setChar(instance, (Character) value);
-                    } else if (f.getType() == boolean.class) {
-                        f.setBoolean(instance, (Boolean) value);
-                    } else {
-                        f.set(instance, value);
-                    }
-                } catch (final IllegalAccessException ex) {
-                    throw new InjectorException(format(
-                        "Field '%s' in class '%s' can't be accessed.",
-                        f.getName(), clazz.getName()
-                    ), ex);
-                }
+    /**
+     * Injects the elements of the specified array from index {@code from}
+     * (inclusive) to {@code to} (exclusive), only looking up how to inject an
+     * instance when its class differs from the previous one.
+     *
+     * @param instances  the instances to inject
+     * @param from       the first index
+     * @param to         the index after the last one
+     */
+    private void injectRange(Object[] instances, int from, int to) {
+        Class<?> type = null;
+        Consumer<Object> injection = null;
+
+        for (int i = from; i < to; i++) {
+            final Object instance = instances[i];
+            if (instance.getClass() != type) {
+                type      = instance.getClass();
+                injection = injection(type);
             }
-        );
+            injection.accept(instance);
+        }
+    }
 
-        return instance;
+    /**
+     * Returns a consumer that injects the fields of instances of the specified
+     * class. The consumer is only created the first time a class is requested
+     * from this injector.
+     * <p>
+     * The consumers are cached in this injector rather than in a
+     * {@code ClassValue}, since they refer to the instances of the injector
+     * and would otherwise keep it reachable for as long as the class is
+     * loaded.
+     *
+     * @param type  the class
+     * @return      consumer that injects an instance of the class
+     */
+    private Consumer<Object> injection(Class<?> type) {
+        final Consumer<Object> cached = injections.get(type);
+        return cached == null
+            ? injections.computeIfAbsent(type, this::bindInjection)
+            : cached;
+    }
+
+    private Consumer<Object> bindInjection(Class<?> type) {
+        final InjectionPlan plan  = InjectionPlan.of(type);
+        final InstanceStore store = byQualifier;
+
+        // Scoped instances must be requested every time something is
+        // injected, so the plan can't be bound in advance.
+        if (isScoped(plan.getDependencies())) {
+            return instance -> plan.bind(store).accept(instance);
+        } else {
+            return plan.bind(store);
+        }
+    }
+
+    /**
+     * Returns the nodes of the specified qualifier in this injector or the
+     * closest parent that has any, or {@code null} if there are none.
+     *
+     * @param qualifier  the qualifier
+     * @return           the nodes, or {@code null}
+     */
+    private Set<Node<?>> nodes(String qualifier) {
+        final Set<Node<?>> own = nodes.get(qualifier);
+        if (own == null && parent != null) {
+            return parent.nodes(qualifier);
+        }
+        return own;
+    }
+
+    /**
+     * Returns {@code true} if any of the specified qualifiers refers to a type
+     * that is not a singleton.
+     *
+     * @param qualifiers  the qualifiers
+     * @return            {@code true} if any of them is scoped
+     */
+    private boolean isScoped(Collection<String> qualifiers) {
+        for (final String qualifier : qualifiers) {
+            if (byQualifier.raw(qualifier) instanceof ScopedInstance) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,296 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.internal.graph.LazyDependency;
+import com.github.pyknic.stiletto.internal.graph.Qualifier;
+import com.github.pyknic.stiletto.internal.graph.QualifierTable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Instances stored by their {@link Qualifier}, using the id of the qualifier
+ * as the index into an array. The store can be viewed as a read-only
+ * {@code Map} from qualifier names to instances, so that it can be passed to
+ * the nodes of the dependency graph. If a {@link Binding} is stored instead of
+ * an instance, then the map view returns the instance of the binding. The
+ * name of a {@link LazyDependency} is mapped to a supplier that looks up the
+ * instance in this store when it is invoked, unless an instance that
+ * {@link LazyDependency#provided(Class) provides} that name is stored.
+ * <p>
+ * A store can have a parent store, in which case names that are not in this
+ * store are looked up in the parent. The {@link #size()} and
+ * {@link #entrySet()} of the map view only include this store.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class InstanceStore extends AbstractMap<String, Object> {
+
+    private final QualifierTable qualifiers;
+    private final InstanceStore parent;
+    private final ConcurrentHashMap<String, Supplier<Object>> suppliers;
+    private Object[] instances;
+    private int size;
+
+    InstanceStore(QualifierTable qualifiers) {
+        this(qualifiers, null);
+    }
+
+    /**
+     * Creates a new store that looks up names that it doesn't have itself in
+     * the specified parent store.
+     *
+     * @param qualifiers  table to intern the qualifiers in
+     * @param parent      the parent store, or {@code null}
+     */
+    InstanceStore(QualifierTable qualifiers, InstanceStore parent) {
+        this.qualifiers = requireNonNull(qualifiers);
+        this.parent     = parent;
+        this.instances  = new Object[qualifiers.size()];
+        this.suppliers  = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the table that the qualifiers of this store are interned in.
+     *
+     * @return  the qualifier table
+     */
+    QualifierTable qualifiers() {
+        return qualifiers;
+    }
+
+    /**
+     * Stores the specified instance under the specified qualifier, replacing
+     * any instance that was there before.
+     *
+     * @param qualifier  the qualifier
+     * @param instance   the instance
+     */
+    void put(Qualifier qualifier, Object instance) {
+        final int id = qualifier.getId();
+        if (id >= instances.length) {
+            instances = Arrays.copyOf(
+                instances, Math.max(id + 1, instances.length * 2)
+            );
+        }
+
+        if (instances[id] == null) {
+            size++;
+        }
+
+        instances[id] = requireNonNull(instance);
+    }
+
+    /**
+     * Returns the instance or binding stored under the specified qualifier,
+     * or {@code null} if there is none.
+     *
+     * @param qualifier  the qualifier
+     * @return           the instance or binding, or {@code null}
+     */
+    Object raw(Qualifier qualifier) {
+        final int id = qualifier.getId();
+        return id < instances.length ? instances[id] : null;
+    }
+
+    /**
+     * Returns the instance or binding stored under the specified qualifier in
+     * this store or any of its parents, or {@code null} if there is none.
+     *
+     * @param qualifier  the qualifier
+     * @return           the instance or binding, or {@code null}
+     */
+    Object raw(String qualifier) {
+        final Object provided = provided(qualifier);
+        if (provided == null && LazyDependency.isKey(qualifier)) {
+            return supplier(LazyDependency.qualifier(qualifier));
+        }
+        return provided;
+    }
+
+    /**
+     * Returns the instance or binding that has actually been stored under the
+     * specified qualifier in this store or any of its parents, or
+     * {@code null} if there is none. Unlike {@link #raw(String)}, this never
+     * returns the supplier of a {@link LazyDependency}.
+     *
+     * @param qualifier  the qualifier
+     * @return           the instance or binding, or {@code null}
+     */
+    Object provided(String qualifier) {
+        final Object own = own(qualifier);
+        if (own == null && parent != null) {
+            return parent.provided(qualifier);
+        }
+        return own;
+    }
+
+    /**
+     * Returns {@code true} if the specified qualifier can be resolved by this
+     * store or any of its parents once the store is complete. Unlike
+     * {@link #containsKey(Object)}, a {@link LazyDependency} is only
+     * resolvable if its target is.
+     *
+     * @param qualifier  the qualifier
+     * @return           {@code true} if it can be resolved
+     */
+    boolean resolvable(String qualifier) {
+        return provided(qualifier) != null || (LazyDependency.isKey(qualifier)
+            && resolvable(LazyDependency.qualifier(qualifier)));
+    }
+
+    /**
+     * Returns a stream of all the instances and bindings in this store,
+     * followed by those of the parents that are stored under names that have
+     * not been overridden.
+     *
+     * @return  stream of instances and bindings
+     */
+    Stream<Object> raw() {
+        final Stream<Object> own = Stream.of(instances).filter(Objects::nonNull);
+        if (parent == null) {
+            return own;
+        }
+
+        return Stream.concat(own, parent.rawEntries()
+            .filter(e -> own(e.getKey()) == null)
+            .map(Entry::getValue)
+        );
+    }
+
+    private Stream<Entry<String, Object>> rawEntries() {
+        final Stream<Entry<String, Object>> own = IntStream
+            .range(0, instances.length)
+            .filter(i -> instances[i] != null)
+            .<Entry<String, Object>>mapToObj(i -> new SimpleImmutableEntry<>(
+                qualifiers.get(i).getName(), instances[i]
+            ));
+
+        if (parent == null) {
+            return own;
+        }
+
+        return Stream.concat(own, parent.rawEntries()
+            .filter(e -> own(e.getKey()) == null)
+        );
+    }
+
+    /**
+     * Returns a supplier that looks up the instance with the specified
+     * qualifier in this store every time it is invoked. This is what a
+     * {@link LazyDependency} refers to. The same supplier is returned every
+     * time this method is invoked with the same qualifier.
+     *
+     * @param qualifier  the qualifier
+     * @return           supplier of the instance
+     */
+    private Supplier<Object> supplier(String qualifier) {
+        return suppliers.computeIfAbsent(qualifier, q -> () -> {
+            final Object instance = get(q);
+            if (instance == null) {
+                throw new InjectorException(
+                    "Qualifier '" + q + "' has not been installed " +
+                    "in injector."
+                );
+            }
+            return instance;
+        });
+    }
+
+    private Object own(String qualifier) {
+        final Qualifier interned = qualifiers.find(qualifier);
+        return interned == null ? null : raw(interned);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String
+            ? Binding.unwrap(raw((String) key))
+            : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && raw((String) key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int next = advance(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < instances.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        final Map.Entry<String, Object> entry =
+                            new SimpleImmutableEntry<>(
+                                qualifiers.get(next).getName(),
+                                Binding.unwrap(instances[next])
+                            );
+
+                        next = advance(next + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int advance(int from) {
+        int i = from;
+        while (i < instances.length && instances[i] == null) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,278 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.CacheStatistics;
+import com.github.pyknic.stiletto.Injector;
+import com.github.pyknic.stiletto.InjectorBuilder;
+import com.github.pyknic.stiletto.InjectorStatistics;
+import com.github.pyknic.stiletto.InjectorStatistics.Operation;
+import com.github.pyknic.stiletto.InjectorStatistics.Timing;
+import com.github.pyknic.stiletto.InstrumentedInjector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of the {@link InstrumentedInjector}-interface.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class InstrumentedInjectorImpl implements InstrumentedInjector {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final Injector injector;
+    private volatile ConcurrentHashMap<Class<?>, LatencyHistogram[]> histograms;
+
+    public InstrumentedInjectorImpl(Injector injector) {
+        this.injector   = requireNonNull(injector);
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public InjectorBuilder child() {
+        return injector.child();
+    }
+
+    @Override
+    public InjectorBuilder derive() {
+        return injector.derive();
+    }
+
+    @Override
+    public CacheStatistics creatorCacheStatistics() {
+        return injector.creatorCacheStatistics();
+    }
+
+    @Override
+    public <T> boolean has(Class<T> type) {
+        final long start = System.nanoTime();
+        try {
+            return injector.has(type);
+        } finally {
+            record(type, Operation.HAS, start);
+        }
+    }
+
+    @Override
+    public <T> Optional<T> get(Class<T> type) {
+        final long start = System.nanoTime();
+        try {
+            return injector.get(type);
+        } finally {
+            record(type, Operation.GET, start);
+        }
+    }
+
+    @Override
+    public <T> T getOrNull(Class<T> type) {
+        final long start = System.nanoTime();
+        try {
+            return injector.getOrNull(type);
+        } finally {
+            record(type, Operation.GET, start);
+        }
+    }
+
+    @Override
+    public <T> T getOrThrow(Class<T> type) {
+        final long start = System.nanoTime();
+        try {
+            return injector.getOrThrow(type);
+        } finally {
+            record(type, Operation.GET, start);
+        }
+    }
+
+    @Override
+    public boolean has(String qualifier) {
+        final long start = System.nanoTime();
+        try {
+            return injector.has(qualifier);
+        } finally {
+            record(Object.class, Operation.HAS, start);
+        }
+    }
+
+    @Override
+    public <T> Optional<T> get(String qualifier) {
+        final long start = System.nanoTime();
+        Optional<T> result = Optional.empty();
+        try {
+            result = injector.get(qualifier);
+            return result;
+        } finally {
+            record(typeOf(result.orElse(null)), Operation.GET, start);
+        }
+    }
+
+    @Override
+    public <T> T getOrThrow(String qualifier) {
+        final long start = System.nanoTime();
+        T result = null;
+        try {
+            result = injector.getOrThrow(qualifier);
+            return result;
+        } finally {
+            record(typeOf(result), Operation.GET, start);
+        }
+    }
+
+    @Override
+    public Stream<Object> stream() {
+        return injector.stream();
+    }
+
+    @Override
+    public <T> T inject(T instance) {
+        final long start = System.nanoTime();
+        try {
+            return injector.inject(instance);
+        } finally {
+            record(instance.getClass(), Operation.INJECT, start);
+        }
+    }
+
+    @Override
+    public <T> T create(Class<T> type) {
+        final long start = System.nanoTime();
+        try {
+            return injector.create(type);
+        } finally {
+            record(type, Operation.CREATE, start);
+        }
+    }
+
+    @Override
+    public <T> Supplier<T> creator(Class<T> type) {
+        final Supplier<T> creator = injector.creator(type);
+        return () -> {
+            final long start = System.nanoTime();
+            try {
+                return creator.get();
+            } finally {
+                record(type, Operation.CREATOR, start);
+            }
+        };
+    }
+
+    @Override
+    public <T> List<T> createMany(Class<T> type, int count) {
+        final long start = System.nanoTime();
+        try {
+            return injector.createMany(type, count);
+        } finally {
+            record(type, Operation.BATCH, start);
+        }
+    }
+
+    @Override
+    public <T> List<T> createMany(Class<T> type, int count, ForkJoinPool pool) {
+        final long start = System.nanoTime();
+        try {
+            return injector.createMany(type, count, pool);
+        } finally {
+            record(type, Operation.BATCH, start);
+        }
+    }
+
+    @Override
+    public <T> T[] fill(T[] array) {
+        final long start = System.nanoTime();
+        try {
+            return injector.fill(array);
+        } finally {
+            record(array.getClass().getComponentType(), Operation.BATCH, start);
+        }
+    }
+
+    @Override
+    public <T> T[] fill(T[] array, ForkJoinPool pool) {
+        final long start = System.nanoTime();
+        try {
+            return injector.fill(array, pool);
+        } finally {
+            record(array.getClass().getComponentType(), Operation.BATCH, start);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> generate(Class<T> type) {
+        // The elements are created lazily, so every element is measured
+        // instead of the call that returns the stream.
+        final Supplier<T> creator = injector.creator(type);
+        return Stream.generate(() -> {
+            final long start = System.nanoTime();
+            try {
+                return creator.get();
+            } finally {
+                record(type, Operation.BATCH, start);
+            }
+        });
+    }
+
+    @Override
+    public InjectorStatistics statistics() {
+        final List<Timing> timings = new ArrayList<>();
+        histograms.forEach((type, perOperation) -> {
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                if (!perOperation[i].isEmpty()) {
+                    timings.add(perOperation[i].toTiming(type, OPERATIONS[i]));
+                }
+            }
+        });
+
+        return new InjectorStatistics(timings);
+    }
+
+    @Override
+    public void reset() {
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    private static Class<?> typeOf(Object instance) {
+        return instance == null ? Object.class : instance.getClass();
+    }
+
+    private void record(Class<?> type, Operation operation, long start) {
+        final long nanos = System.nanoTime() - start;
+        final ConcurrentHashMap<Class<?>, LatencyHistogram[]> current = histograms;
+
+        LatencyHistogram[] perOperation = current.get(type);
+        if (perOperation == null) {
+            perOperation = current.computeIfAbsent(type, t -> {
+                final LatencyHistogram[] created =
+                    new LatencyHistogram[OPERATIONS.length];
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = new LatencyHistogram();
+                }
+                return created;
+            });
+        }
+
+        perOperation[operation.ordinal()].record(nanos);
+    }
+}
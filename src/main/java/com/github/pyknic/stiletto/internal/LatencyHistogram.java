@@ -0,0 +1,125 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.InjectorStatistics.Operation;
+import com.github.pyknic.stiletto.InjectorStatistics.Timing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe histogram of latencies in nanoseconds. Values below 16 get a
+ * bucket each, and every power of two above that is divided into 8 buckets of
+ * equal width, so the relative error of a bucket is at most 12.5%. The count
+ * and the total are kept in striped {@link LongAdder LongAdders} to reduce
+ * contention.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR   = 16;
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS  =
+        LINEAR + (63 - Integer.numberOfTrailingZeros(LINEAR)) * (1 << SUB_BITS);
+
+    private static final long[] UPPER_BOUNDS = new long[BUCKETS];
+
+    static {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (i < LINEAR) {
+                UPPER_BOUNDS[i] = i;
+            } else {
+                final int exponent = Integer.numberOfTrailingZeros(LINEAR)
+                    + (i - LINEAR) / (1 << SUB_BITS);
+                final int sub   = (i - LINEAR) % (1 << SUB_BITS);
+                final int shift = exponent - SUB_BITS;
+
+                UPPER_BOUNDS[i] = (((long) (1 << SUB_BITS) + sub) << shift)
+                    + (1L << shift) - 1;
+            }
+        }
+    }
+
+    private final LongAdder count;
+    private final LongAdder total;
+    private final LongAccumulator max;
+    private final AtomicLongArray buckets;
+
+    LatencyHistogram() {
+        this.count   = new LongAdder();
+        this.total   = new LongAdder();
+        this.max     = new LongAccumulator(Math::max, 0);
+        this.buckets = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Records a single measurement.
+     *
+     * @param nanos  the latency in nanoseconds
+     */
+    void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+        buckets.incrementAndGet(bucketOf(value));
+    }
+
+    /**
+     * Returns {@code true} if no measurements have been recorded.
+     *
+     * @return  {@code true} if empty
+     */
+    boolean isEmpty() {
+        return count.sum() == 0;
+    }
+
+    /**
+     * Returns an immutable copy of this histogram.
+     *
+     * @param type       the type that was measured
+     * @param operation  the operation that was measured
+     * @return           the timing
+     */
+    Timing toTiming(Class<?> type, Operation operation) {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return new Timing(
+            type, operation, count.sum(), total.sum(), max.get(),
+            UPPER_BOUNDS, counts
+        );
+    }
+
+    private static int bucketOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return LINEAR
+            + (exponent - Integer.numberOfTrailingZeros(LINEAR)) * (1 << SUB_BITS)
+            + sub;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.internal.graph.Node;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binding of a singleton in a lazily built injector that is instantiated the
+ * first time it is requested. The dependencies of the node are bound when the
+ * injector is built, so that they are the same as if it had been built
+ * eagerly, but they are not instantiated until this node is.
+ * <p>
+ * The instance is published using double-checked locking. Since the
+ * dependency graph is acyclic and a lock is only held while waiting for
+ * dependencies, concurrent instantiation can't deadlock.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class LazyInstance extends Binding {
+
+    private final Node<?> node;
+    private final Map<String, Object> dependencies;
+    private volatile Object instance;
+
+    LazyInstance(Node<?> node, Map<String, Object> dependencies) {
+        this.node         = requireNonNull(node);
+        this.dependencies = requireNonNull(dependencies);
+    }
+
+    /**
+     * Returns the instance, creating it and any dependencies that haven't been
+     * created yet if this is the first invocation. If the instantiation fails,
+     * then the exception is thrown and the next invocation will try again.
+     *
+     * @return  the instance
+     */
+    @Override
+    Object get() {
+        Object result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    instance = result = node.instantiate(unwrapAll(dependencies));
+                }
+            }
+        }
+        return result;
+    }
+}
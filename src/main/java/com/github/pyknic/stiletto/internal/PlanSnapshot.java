@@ -0,0 +1,359 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.internal.graph.GeneratedNode;
+import com.github.pyknic.stiletto.internal.graph.Node;
+import com.github.pyknic.stiletto.internal.graph.NodeImpl;
+import com.github.pyknic.stiletto.processor.GeneratedFactory;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.ancestors;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Reads and writes a binary snapshot of a resolved dependency graph, so that
+ * the reflective analysis of the registered types and the resolution of the
+ * graph can be skipped the next time the same types are registered.
+ * <p>
+ * The snapshot contains the qualifier, class name and fingerprint of every
+ * registered type, followed by the selected node of every type, layer by
+ * layer. For nodes that invoke a constructor, the parameter types of the
+ * constructor and the dependencies (including injected fields) are stored.
+ * For nodes that use a {@link GeneratedFactory}, only the type is stored.
+ * <p>
+ * The fingerprint of a type is a checksum of the class files of the type and
+ * all its ancestors that are not loaded by the bootstrap class loader. A
+ * snapshot is only used if every registered type has the same qualifier and
+ * fingerprint as when it was written.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class PlanSnapshot {
+
+    private static final int MAGIC   = 0x53544C50; // "STLP"
+    private static final int VERSION = 1;
+
+    private static final byte CONSTRUCTOR = 0;
+    private static final byte GENERATED   = 1;
+
+    /**
+     * Reads the snapshot in the specified file and returns the layers of the
+     * resolved graph, if the snapshot was written for the specified types. If
+     * the file doesn't exist, can't be parsed or was written for other types
+     * (or other versions of the same types), then an empty {@code Optional}
+     * is returned.
+     *
+     * @param file   the snapshot file
+     * @param types  the registered types, mapped by their qualifiers
+     * @return       the resolved graph, or empty
+     */
+    static Optional<List<List<Node<?>>>> read(Path file,
+                                              Map<String, Class<?>> types) {
+
+        try (final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Optional.empty();
+            }
+
+            final int typeCount = in.readInt();
+            if (typeCount != types.size()) {
+                return Optional.empty();
+            }
+
+            final String[] qualifiers = new String[typeCount];
+            final Class<?>[] classes  = new Class<?>[typeCount];
+
+            int index = 0;
+            for (final Map.Entry<String, Class<?>> type : types.entrySet()) {
+                final String qualifier = in.readUTF();
+                final String className = in.readUTF();
+                final long fingerprint = in.readLong();
+
+                if (!qualifier.equals(type.getKey())
+                ||  !className.equals(type.getValue().getName())
+                ||  fingerprint(type.getValue()) != fingerprint) {
+                    return Optional.empty();
+                }
+
+                qualifiers[index] = qualifier;
+                classes[index++]  = type.getValue();
+            }
+
+            final int layerCount = in.readInt();
+            final List<List<Node<?>>> layers = new ArrayList<>(layerCount);
+            for (int i = 0; i < layerCount; i++) {
+                final int nodeCount = in.readInt();
+                final List<Node<?>> layer = new ArrayList<>(nodeCount);
+                for (int j = 0; j < nodeCount; j++) {
+                    final int type = in.readInt();
+                    final Optional<Node<?>> node =
+                        readNode(in, qualifiers[type], classes[type]);
+
+                    if (!node.isPresent()) {
+                        return Optional.empty();
+                    }
+
+                    layer.add(node.get());
+                }
+                layers.add(layer);
+            }
+
+            return Optional.of(layers);
+
+        } catch (final NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (final IOException
+                     | ReflectiveOperationException
+                     | IndexOutOfBoundsException
+                     | NoSuchElementException ex) {
+            // A corrupt or outdated snapshot is simply ignored, since it is
+            // replaced once the graph has been resolved again.
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the specified resolved graph to the specified file,
+     * replacing any existing file. If the graph contains nodes that can't be
+     * snapshotted, types that don't have a fingerprint, or if the file can't
+     * be written, then nothing is written.
+     *
+     * @param file    the snapshot file
+     * @param types   the registered types, mapped by their qualifiers
+     * @param layers  the resolved graph
+     */
+    static void write(Path file,
+                      Map<String, Class<?>> types,
+                      List<List<Node<?>>> layers) {
+
+        final Map<String, Integer> indexes = new HashMap<>();
+        final long[] fingerprints = new long[types.size()];
+
+        int index = 0;
+        for (final Class<?> type : types.values()) {
+            final OptionalLong fingerprint = fingerprintOf(type);
+            if (!fingerprint.isPresent()) {
+                return;
+            }
+            fingerprints[index++] = fingerprint.getAsLong();
+        }
+
+        final boolean supported = layers.stream()
+            .flatMap(List::stream)
+            .allMatch(n -> n instanceof NodeImpl || n instanceof GeneratedNode);
+
+        if (!supported) {
+            return;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(types.size());
+            index = 0;
+            for (final Map.Entry<String, Class<?>> type : types.entrySet()) {
+                indexes.put(type.getKey(), index);
+                out.writeUTF(type.getKey());
+                out.writeUTF(type.getValue().getName());
+                out.writeLong(fingerprints[index++]);
+            }
+
+            out.writeInt(layers.size());
+            for (final List<Node<?>> layer : layers) {
+                out.writeInt(layer.size());
+                for (final Node<?> node : layer) {
+                    out.writeInt(indexes.get(node.getQualifier()));
+                    writeNode(out, node);
+                }
+            }
+
+            final Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+
+            // Write to a temporary file first so that a process that reads
+            // the snapshot concurrently never sees a partial file.
+            final Path temp = Files.createTempFile(
+                directory, file.getFileName().toString(), ".tmp"
+            );
+
+            try {
+                Files.write(temp, bytes.toByteArray());
+                try {
+                    Files.move(temp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+                } catch (final AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException ex) {
+            // The snapshot is only an optimization, so the build succeeds
+            // anyway. The graph is resolved again the next time.
+        }
+    }
+
+    private static Optional<Node<?>> readNode(DataInputStream in,
+                                              String qualifier,
+                                              Class<?> type)
+    throws IOException, ReflectiveOperationException {
+
+        switch (in.readByte()) {
+            case CONSTRUCTOR : {
+                final Class<?>[] params = new Class<?>[in.readInt()];
+                for (int i = 0; i < params.length; i++) {
+                    params[i] = classForName(in.readUTF(), type.getClassLoader());
+                }
+
+                final Set<String> deps = new HashSet<>();
+                final int depCount = in.readInt();
+                for (int i = 0; i < depCount; i++) {
+                    deps.add(in.readUTF());
+                }
+
+                final Constructor<?> constructor =
+                    type.getDeclaredConstructor(params);
+
+                return Optional.of(newNode(
+                    qualifier, unmodifiableSet(deps), constructor
+                ));
+            }
+
+            case GENERATED : return generatedNode(qualifier, type);
+
+            default : return Optional.empty();
+        }
+    }
+
+    private static void writeNode(DataOutputStream out, Node<?> node)
+    throws IOException {
+        if (node instanceof NodeImpl) {
+            final Constructor<?> constructor =
+                ((NodeImpl<?>) node).getConstructor();
+
+            out.writeByte(CONSTRUCTOR);
+            out.writeInt(constructor.getParameterCount());
+            for (final Class<?> param : constructor.getParameterTypes()) {
+                out.writeUTF(param.getName());
+            }
+
+            out.writeInt(node.getDependencies().size());
+            for (final String dep : node.getDependencies()) {
+                out.writeUTF(dep);
+            }
+        } else {
+            out.writeByte(GENERATED);
+        }
+    }
+
+    private static <T> Optional<Node<?>> generatedNode(String qualifier,
+                                                       Class<T> type) {
+        return GeneratedFactories.find(type)
+            .map(f -> new GeneratedNode<>(qualifier, f));
+    }
+
+    private static <T> Node<T> newNode(String qualifier,
+                                       Set<String> dependencies,
+                                       Constructor<T> constructor) {
+        return new NodeImpl<>(qualifier, dependencies, constructor);
+    }
+
+    /**
+     * Computes the fingerprint of the specified type, or returns
+     * {@code -1} if it doesn't have one. Checksums are never negative, so a
+     * type without a fingerprint never matches a snapshot.
+     *
+     * @param type  the type
+     * @return      the fingerprint, or -1
+     */
+    private static long fingerprint(Class<?> type) {
+        return fingerprintOf(type).orElse(-1);
+    }
+
+    /**
+     * Computes a checksum of the class files of the specified type and all of
+     * its ancestors that are not loaded by the bootstrap class loader. If the
+     * class file of any of them can't be found, then an empty result is
+     * returned.
+     *
+     * @param type  the type
+     * @return      the fingerprint, or empty
+     */
+    private static OptionalLong fingerprintOf(Class<?> type) {
+        final CRC32 checksum = new CRC32();
+        final byte[] buffer  = new byte[8192];
+
+        for (final Class<?> ancestor : ancestors(type)) {
+
+            final ClassLoader loader = ancestor.getClassLoader();
+            if (loader == null) {
+                continue;
+            }
+
+            final String resource = ancestor.getName().replace('.', '/') + ".class";
+            try (final InputStream in = loader.getResourceAsStream(resource)) {
+                if (in == null) {
+                    return OptionalLong.empty();
+                }
+
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    checksum.update(buffer, 0, read);
+                }
+            } catch (final IOException ex) {
+                return OptionalLong.empty();
+            }
+        }
+
+        return OptionalLong.of(checksum.getValue());
+    }
+
+    private static Class<?> classForName(String name, ClassLoader loader)
+    throws ClassNotFoundException {
+        switch (name) {
+            case "boolean" : return boolean.class;
+            case "byte"    : return byte.class;
+            case "short"   : return short.class;
+            case "char"    : return char.class;
+            case "int"     : return int.class;
+            case "long"    : return long.class;
+            case "float"   : return float.class;
+            case "double"  : return double.class;
+            default        : return Class.forName(name, false, loader);
+        }
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private PlanSnapshot() {}
+}
@@ -0,0 +1,136 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.processor.InjectProcessor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.partitioningBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Reads the index of {@link com.github.pyknic.stiletto.Provider}-annotated
+ * classes that the {@link InjectProcessor} generates at compile time, so that
+ * they can be found without scanning the classpath.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class ProviderIndex {
+
+    /**
+     * Scan specifications that can be evaluated against the index. Anything
+     * else (like jar or classloader filters) requires a classpath scan.
+     */
+    private static final Pattern SUPPORTED_SPEC =
+        Pattern.compile("-?[\\w.$]*");
+
+    /**
+     * Loads all the provider indexes visible to the specified class loader and
+     * returns the classes that match the scan specification, mapped to the
+     * qualifiers from their annotations. An empty qualifier means that the
+     * class name should be used.
+     * <p>
+     * If no index exists, or if the scan specification can only be evaluated
+     * by scanning the classpath, then an empty {@code Optional} is returned.
+     *
+     * @param loader    the class loader to load indexes and classes from
+     * @param scanSpec  the scan specification
+     * @return          the matching classes and their qualifiers, or empty
+     *
+     * @throws InjectorException  if an index can't be read or lists a class
+     *                            that can't be loaded
+     */
+    static Optional<Map<Class<?>, String>> load(ClassLoader loader,
+                                                String... scanSpec) {
+
+        if (!Stream.of(scanSpec).allMatch(s -> SUPPORTED_SPEC.matcher(s).matches())) {
+            return Optional.empty();
+        }
+
+        final Map<Boolean, List<String>> packages = Stream.of(scanSpec)
+            .filter(s -> !s.isEmpty() && !"-".equals(s))
+            .collect(partitioningBy(s -> s.startsWith("-")));
+
+        final List<String> included = packages.get(false);
+        final List<String> excluded = packages.get(true).stream()
+            .map(s -> s.substring(1))
+            .collect(toList());
+
+        final Enumeration<URL> indexes;
+        try {
+            indexes = loader.getResources(InjectProcessor.PROVIDER_INDEX);
+        } catch (final IOException ex) {
+            throw new InjectorException(
+                "Failed to locate " + InjectProcessor.PROVIDER_INDEX + ".", ex
+            );
+        }
+
+        if (!indexes.hasMoreElements()) {
+            return Optional.empty();
+        }
+
+        final Map<Class<?>, String> providers = new LinkedHashMap<>();
+        while (indexes.hasMoreElements()) {
+            final URL index = indexes.nextElement();
+            try (final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+
+                    final int tab = line.indexOf('\t');
+                    final String className = tab < 0 ? line : line.substring(0, tab);
+                    final String qualifier = tab < 0 ? "" : line.substring(tab + 1);
+
+                    if ((included.isEmpty() || included.stream().anyMatch(p -> inPackage(className, p)))
+                    &&  excluded.stream().noneMatch(p -> inPackage(className, p))) {
+                        providers.put(Class.forName(className, false, loader), qualifier);
+                    }
+                }
+            } catch (final IOException | ClassNotFoundException ex) {
+                throw new InjectorException(
+                    "Failed to load providers from index '" + index + "'.", ex
+                );
+            }
+        }
+
+        return Optional.of(providers);
+    }
+
+    private static boolean inPackage(String className, String pkg) {
+        return className.equals(pkg) || className.startsWith(pkg + ".");
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private ProviderIndex() {}
+}
@@ -0,0 +1,194 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.InjectorException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.*;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Reads the packages that jars declare {@link com.github.pyknic.stiletto.Provider}
+ * classes in using the {@value #ATTRIBUTE} attribute of their manifest, so
+ * that a classpath scan of those jars can be limited to those packages. Jars
+ * and directories that don't declare the attribute are still scanned in full.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class ProviderManifest {
+
+    /**
+     * The name of the manifest attribute that lists the packages with
+     * providers, separated by commas.
+     */
+    static final String ATTRIBUTE = "Stiletto-Providers";
+
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+    private static final String JAR      = "jar:";
+
+    /**
+     * Returns the packages declared by all the jar manifests visible to the
+     * specified class loader, mapped by the file name of the jar. Jars that
+     * don't have the {@value #ATTRIBUTE} attribute are not included.
+     * Manifests in directories are ignored, since a scan can only be limited
+     * to specific jars.
+     *
+     * @param loader  the class loader to load manifests from
+     * @return        the declared packages by jar file name
+     *
+     * @throws InjectorException  if a manifest can't be read
+     */
+    static Map<String, List<String>> declaredPackages(ClassLoader loader) {
+        final Enumeration<URL> manifests;
+        try {
+            manifests = loader.getResources(MANIFEST);
+        } catch (final IOException ex) {
+            throw new InjectorException("Failed to locate " + MANIFEST + ".", ex);
+        }
+
+        final Map<String, List<String>> declared = new LinkedHashMap<>();
+        while (manifests.hasMoreElements()) {
+            final URL url = manifests.nextElement();
+            final String jar = jarName(url);
+            if (jar == null) {
+                continue;
+            }
+
+            try (final InputStream in = url.openStream()) {
+                final String packages = new Manifest(in)
+                    .getMainAttributes().getValue(ATTRIBUTE);
+
+                if (packages != null) {
+                    final List<String> list = Stream.of(packages.split(","))
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .distinct()
+                        .collect(toList());
+
+                    if (!list.isEmpty()) {
+                        declared.computeIfAbsent(jar, j -> new ArrayList<>())
+                            .addAll(list);
+                    }
+                }
+            } catch (final IOException ex) {
+                throw new InjectorException(
+                    "Failed to read manifest '" + url + "'.", ex
+                );
+            }
+        }
+
+        return declared;
+    }
+
+    /**
+     * Returns the scan specifications that only scan the declared packages of
+     * the jars that declare them, and everything in the other jars and
+     * directories. If no jar declares any packages, or if the specified
+     * specification already names packages to include, then it is returned
+     * unchanged as the only element. Otherwise two specifications are
+     * returned: one that excludes the declaring jars, and one that only
+     * includes them and only in the declared packages. Other parts of the
+     * specification (like exclusions and jar filters) are kept.
+     *
+     * @param scanSpec  the scan specification
+     * @param declared  the declared packages by jar file name
+     * @return          the scan specifications to execute
+     */
+    static List<String[]> narrow(String[] scanSpec,
+                                 Map<String, List<String>> declared) {
+
+        if (declared.isEmpty()
+        ||  Stream.of(scanSpec).anyMatch(ProviderManifest::isIncludedPackage)) {
+            return singletonList(scanSpec);
+        }
+
+        // If the jars are already limited, then only scan the declaring jars
+        // that would have been scanned anyway.
+        final Set<String> included = Stream.of(scanSpec)
+            .filter(s -> s.startsWith(JAR))
+            .map(s -> s.substring(JAR.length()))
+            .collect(toSet());
+
+        final List<String> jars = declared.keySet().stream()
+            .filter(j -> included.isEmpty() || included.contains(j))
+            .collect(toList());
+
+        final String[] undeclared = Stream.concat(
+            Stream.of(scanSpec).filter(s -> !s.isEmpty()),
+            declared.keySet().stream().map(j -> "-" + JAR + j)
+        ).toArray(String[]::new);
+
+        if (jars.isEmpty()) {
+            return singletonList(undeclared);
+        }
+
+        final String[] narrowed = Stream.of(
+            jars.stream().flatMap(j -> declared.get(j).stream()).distinct(),
+            jars.stream().map(j -> JAR + j),
+            Stream.of(scanSpec).filter(s -> s.startsWith("-"))
+        ).flatMap(identity()).toArray(String[]::new);
+
+        return Arrays.asList(undeclared, narrowed);
+    }
+
+    /**
+     * Returns the file name of the jar that the specified manifest is located
+     * in, or {@code null} if it is not located in a jar.
+     *
+     * @param manifest  the url of the manifest
+     * @return          the jar file name, or {@code null}
+     */
+    private static String jarName(URL manifest) {
+        if (!"jar".equals(manifest.getProtocol())) {
+            return null;
+        }
+
+        final String path = manifest.getPath();
+        final int end = path.lastIndexOf("!/");
+        if (end < 0) {
+            return null;
+        }
+
+        final String name = path.substring(path.lastIndexOf('/', end - 1) + 1, end);
+        try {
+            return URLDecoder.decode(name.replace("+", "%2B"), "UTF-8");
+        } catch (final UnsupportedEncodingException ex) {
+            throw new InjectorException("UTF-8 is not supported.", ex);
+        }
+    }
+
+    private static boolean isIncludedPackage(String spec) {
+        return !spec.isEmpty() && !spec.startsWith("-") && !spec.contains(":");
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private ProviderManifest() {}
+}
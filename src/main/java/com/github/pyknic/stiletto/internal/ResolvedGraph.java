@@ -0,0 +1,130 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.Scope;
+import com.github.pyknic.stiletto.internal.graph.Node;
+
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Everything that was known when an injector was built: the types and scopes
+ * that were added, the nodes that were found for them, the node that was
+ * selected for every qualifier, what was stored for it and what its
+ * dependencies referred to at that time. This is kept by
+ * the injector so that a {@link com.github.pyknic.stiletto.Injector#derive()
+ * derived} injector can reuse all of it for the types that are not affected by
+ * a change.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class ResolvedGraph {
+
+    private final Map<String, Class<?>> types;
+    private final Map<String, Scope> scopes;
+    private final Map<String, Set<Node<?>>> nodes;
+    private final Map<String, Node<?>> selected;
+    private final Map<String, Object> instances;
+    private final Map<String, Object[]> dependencies;
+    private final boolean lazy;
+
+    /**
+     * Creates a new graph. The maps are not copied, so they must not be
+     * modified afterwards.
+     *
+     * @param types         the added types, mapped by qualifier
+     * @param scopes        the scopes of types that are not singletons
+     * @param nodes         the nodes found for every qualifier
+     * @param selected      the node selected for every qualifier
+     * @param instances     the instance or binding stored for every qualifier
+     * @param dependencies  the dependencies of every selected node
+     * @param lazy          if the injector was built lazily
+     */
+    ResolvedGraph(Map<String, Class<?>> types,
+                  Map<String, Scope> scopes,
+                  Map<String, Set<Node<?>>> nodes,
+                  Map<String, Node<?>> selected,
+                  Map<String, Object> instances,
+                  Map<String, Object[]> dependencies,
+                  boolean lazy) {
+
+        this.types        = unmodifiableMap(requireNonNull(types));
+        this.scopes       = unmodifiableMap(requireNonNull(scopes));
+        this.nodes        = unmodifiableMap(requireNonNull(nodes));
+        this.selected     = unmodifiableMap(requireNonNull(selected));
+        this.instances    = unmodifiableMap(requireNonNull(instances));
+        this.dependencies = unmodifiableMap(requireNonNull(dependencies));
+        this.lazy         = lazy;
+    }
+
+    Map<String, Class<?>> types() {
+        return types;
+    }
+
+    Map<String, Scope> scopes() {
+        return scopes;
+    }
+
+    Map<String, Set<Node<?>>> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the node that was selected for the specified qualifier, or
+     * {@code null} if the qualifier was not in the graph.
+     *
+     * @param qualifier  the qualifier
+     * @return           the selected node, or {@code null}
+     */
+    Node<?> selected(String qualifier) {
+        return selected.get(qualifier);
+    }
+
+    /**
+     * Returns the instance or {@link Binding} that was stored for the
+     * specified qualifier, or {@code null} if the qualifier was not in the
+     * graph.
+     *
+     * @param qualifier  the qualifier
+     * @return           the instance or binding, or {@code null}
+     */
+    Object instance(String qualifier) {
+        return instances.get(qualifier);
+    }
+
+    /**
+     * Returns the instances and bindings that the dependencies of the node
+     * selected for the specified qualifier referred to when it was created, in
+     * the iteration order of {@link Node#getDependencies()}, or {@code null}
+     * if the qualifier was not in the graph.
+     *
+     * @param qualifier  the qualifier
+     * @return           the dependencies, or {@code null}
+     */
+    Object[] dependencies(String qualifier) {
+        return dependencies.get(qualifier);
+    }
+
+    boolean isLazy() {
+        return lazy;
+    }
+}
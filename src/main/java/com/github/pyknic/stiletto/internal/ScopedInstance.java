@@ -0,0 +1,59 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.Scope;
+import com.github.pyknic.stiletto.internal.graph.Node;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binding of a type that is not a singleton. Every time the instance is
+ * requested, the {@link Scope} of the type decides whether to create a new
+ * one or not.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class ScopedInstance extends Binding {
+
+    private final String qualifier;
+    private final Scope scope;
+    private final Supplier<?> creator;
+
+    ScopedInstance(Node<?> node, Scope scope, Map<String, Object> dependencies) {
+        this.qualifier = node.getQualifier();
+        this.scope     = requireNonNull(scope);
+
+        // If all the dependencies are already instantiated, then they can be
+        // bound once. If not, they have to be requested again every time
+        // since they might be scoped as well.
+        if (dependencies.values().stream().noneMatch(Binding.class::isInstance)) {
+            this.creator = node.creator(dependencies);
+        } else {
+            this.creator = () -> node.instantiate(unwrapAll(dependencies));
+        }
+    }
+
+    @Override
+    Object get() {
+        return scope.get(qualifier, creator);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import java.util.Map;
+
+/**
+ * Immutable map from classes to instances that is optimized for lookups. The
+ * entries are stored in two parallel arrays using open addressing with linear
+ * probing, and classes are compared by identity, so a lookup doesn't allocate
+ * anything and usually only needs to read a couple of array slots.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+final class TypeTable {
+
+    private final Class<?>[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * Creates a new table with the same entries as the specified map.
+     *
+     * @param entries  the entries
+     */
+    TypeTable(Map<Class<?>, Object> entries) {
+        // Keep the load factor at or below 50% so that probe sequences stay
+        // short.
+        int capacity = 2;
+        while (capacity < entries.size() * 2) {
+            capacity <<= 1;
+        }
+
+        this.keys   = new Class<?>[capacity];
+        this.values = new Object[capacity];
+        this.mask   = capacity - 1;
+
+        entries.forEach((key, value) -> {
+            int i = indexOf(key);
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i]   = key;
+            values[i] = value;
+        });
+    }
+
+    /**
+     * Returns the value of the specified class, or {@code null} if it is not
+     * in the table.
+     *
+     * @param key  the class
+     * @return     the value, or {@code null}
+     */
+    Object get(Class<?> key) {
+        for (int i = indexOf(key); ; i = (i + 1) & mask) {
+            final Class<?> candidate = keys[i];
+            if (candidate == key) {
+                return values[i];
+            } else if (candidate == null) {
+                return null;
+            }
+        }
+    }
+
+    private int indexOf(Class<?> key) {
+        final int hash = System.identityHashCode(key);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
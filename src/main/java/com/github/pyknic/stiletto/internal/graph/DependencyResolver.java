@@ -0,0 +1,367 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import com.github.pyknic.stiletto.InjectorException;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.ancestors;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Determines in which order the nodes of a dependency graph can be
+ * instantiated. The graph is resolved by counting the number of unsatisfied
+ * dependencies of every node and decrementing the count as the dependencies
+ * are resolved, so every edge in the graph is only visited once.
+ * <p>
+ * A node is said to provide its own qualifier as well as the names of all the
+ * ancestors of its {@link Node#getType() type}. A dependency is satisfied as
+ * soon as any node that provides it has been resolved. If a qualifier has
+ * multiple nodes, then the node that can be placed in the earliest layer is
+ * selected. If several nodes of the qualifier can be placed in that layer,
+ * then the first of them in the iteration order of the set is selected,
+ * regardless of the order in which their dependencies were resolved.
+ * <p>
+ * {@link LazyDependency Lazy dependencies} are satisfied from the start, so
+ * they don't affect the order of the nodes and may form cycles. The
+ * qualifiers they refer to must still be provided by some resolved node. If a
+ * node in the graph {@link LazyDependency#provided(Class) provides} the name
+ * of the lazy dependency itself, by implementing {@code Supplier<X>}, then
+ * the dependency refers to that node instead and is resolved like any other
+ * dependency.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class DependencyResolver {
+
+    /**
+     * Resolves the specified graph into a list of layers, where every node in
+     * a layer only depends on nodes in preceding layers. Nodes within a layer
+     * are ordered in the same order as the qualifiers in the specified map.
+     *
+     * @param injectables  the nodes to resolve, mapped by their qualifiers
+     * @return             the resolved nodes, layer by layer
+     *
+     * @throws InjectorException  if some nodes could not be resolved
+     */
+    public static List<List<Node<?>>> resolve(
+            Map<String, Set<Node<?>>> injectables) {
+        return resolve(injectables, new QualifierTable());
+    }
+
+    /**
+     * Resolves the specified graph into a list of layers, where every node in
+     * a layer only depends on nodes in preceding layers. Nodes within a layer
+     * are ordered in the same order as the qualifiers in the specified map.
+     * <p>
+     * All the qualifiers, dependencies and provided names of the graph are
+     * interned in the specified table, so that the graph can be resolved
+     * using arrays indexed by qualifier id.
+     *
+     * @param injectables  the nodes to resolve, mapped by their qualifiers
+     * @param qualifiers   table to intern the qualifiers in
+     * @return             the resolved nodes, layer by layer
+     *
+     * @throws InjectorException  if some nodes could not be resolved
+     */
+    public static List<List<Node<?>>> resolve(
+            Map<String, Set<Node<?>>> injectables,
+            QualifierTable qualifiers) {
+        return resolve(injectables, qualifiers, name -> false);
+    }
+
+    /**
+     * Resolves the specified graph into a list of layers, where every node in
+     * a layer only depends on nodes in preceding layers. Nodes within a layer
+     * are ordered in the same order as the qualifiers in the specified map.
+     * <p>
+     * Dependencies that are not provided by any node in the graph but match
+     * the specified predicate are considered satisfied from the start. This is
+     * used to resolve the graph of a child injector, where the predicate tests
+     * if the parent has an instance with that name. Dependencies that are
+     * provided by the graph are always satisfied by the graph, so that the
+     * child can override the instances of the parent.
+     *
+     * @param injectables  the nodes to resolve, mapped by their qualifiers
+     * @param qualifiers   table to intern the qualifiers in
+     * @param external     predicate for names that are provided elsewhere
+     * @return             the resolved nodes, layer by layer
+     *
+     * @throws InjectorException  if some nodes could not be resolved
+     *
+     * @since 1.0.5
+     */
+    public static List<List<Node<?>>> resolve(
+            Map<String, Set<Node<?>>> injectables,
+            QualifierTable qualifiers,
+            Predicate<String> external) {
+
+        final List<String> names = new ArrayList<>(injectables.keySet());
+        final Node<?>[] selected = new Node<?>[names.size()];
+        final List<List<Pending>> waiting = new ArrayList<>();
+        final BitSet available = new BitSet();
+
+        names.forEach(qualifiers::intern);
+
+        // The names that are provided by the graph itself are only computed
+        // if some dependency could be satisfied externally or is lazy.
+        final BitSet satisfied = new BitSet();
+        BitSet local = null;
+
+        boolean lazy = false;
+        for (final Set<Node<?>> nodes : injectables.values()) {
+            for (final Node<?> node : nodes) {
+                for (final String dep : node.getDependencies()) {
+                    lazy |= LazyDependency.isKey(dep);
+                }
+            }
+        }
+
+        if (lazy) {
+            local = provided(injectables, qualifiers);
+        }
+
+        // Count the dependencies of every node and index the nodes by the
+        // dependencies they are waiting for.
+        List<Integer> layer = new ArrayList<>();
+        for (int i = 0; i < selected.length; i++) {
+            int order = 0;
+            for (final Node<?> node : injectables.get(names.get(i))) {
+                final Pending pending = new Pending(i, order++, node);
+                for (final String dep : node.getDependencies()) {
+                    final int id = qualifiers.intern(dep).getId();
+                    if (LazyDependency.isKey(dep) && !local.get(id)) {
+                        satisfied.set(id);
+                    } else if (!satisfied.get(id) && external.test(dep)) {
+                        if (local == null) {
+                            local = provided(injectables, qualifiers);
+                        }
+                        if (!local.get(id)) {
+                            satisfied.set(id);
+                        }
+                    }
+
+                    if (satisfied.get(id)) {
+                        pending.remaining--;
+                    }
+                }
+
+                if (pending.remaining == 0) {
+                    if (selected[i] == null) {
+                        selected[i] = node;
+                        layer.add(i);
+                    }
+                } else {
+                    for (final String dep : node.getDependencies()) {
+                        final int id = qualifiers.intern(dep).getId();
+
+                        if (satisfied.get(id)) {
+                            continue;
+                        }
+
+                        while (waiting.size() <= id) {
+                            waiting.add(null);
+                        }
+
+                        List<Pending> dependents = waiting.get(id);
+                        if (dependents == null) {
+                            dependents = new ArrayList<>();
+                            waiting.set(id, dependents);
+                        }
+                        dependents.add(pending);
+                    }
+                }
+            }
+        }
+
+        // Nodes of the same qualifier that become ready in the same layer are
+        // compared before one of them is selected, so that the selection
+        // doesn't depend on the order in which their dependencies resolved.
+        final Pending[] ready = new Pending[selected.length];
+        final List<List<Node<?>>> layers = new ArrayList<>();
+        int resolved = 0;
+
+        while (!layer.isEmpty()) {
+            Collections.sort(layer);
+            layers.add(layer.stream()
+                .map(i -> selected[i])
+                .collect(toList())
+            );
+
+            resolved += layer.size();
+
+            final List<Integer> next = new ArrayList<>();
+            for (final int i : layer) {
+                for (final int id : provides(qualifiers, names.get(i), selected[i])) {
+                    if (available.get(id)) {
+                        continue;
+                    }
+
+                    available.set(id);
+                    if (id < waiting.size() && waiting.get(id) != null) {
+                        for (final Pending pending : waiting.set(id, null)) {
+                            if (--pending.remaining == 0
+                            &&  selected[pending.index] == null) {
+                                final Pending other = ready[pending.index];
+                                if (other == null) {
+                                    ready[pending.index] = pending;
+                                    next.add(pending.index);
+                                } else if (pending.order < other.order) {
+                                    ready[pending.index] = pending;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (final int i : next) {
+                selected[i] = ready[i].node;
+                ready[i]    = null;
+            }
+
+            layer = next;
+        }
+
+        if (resolved < selected.length) {
+            final List<String> unresolved = new ArrayList<>();
+            for (int i = 0; i < selected.length; i++) {
+                if (selected[i] == null) {
+                    unresolved.add(names.get(i));
+                }
+            }
+
+            throw new InjectorException(
+                "Error! Can't resolve dependencies for the " +
+                "following qualifiers: " + unresolved +
+                ".\nThe following dependencies have not been resolved: [\n" +
+                    unresolved.stream()
+                        .map(injectables::get)
+                        .flatMap(Set::stream)
+                        .map(n -> "  " + n.getQualifier() + " -> [\n    " +
+                            n.getDependencies().stream()
+                                .mapToInt(d -> qualifiers.intern(d).getId())
+                                .filter(id -> !available.get(id)
+                                           && !satisfied.get(id))
+                                .mapToObj(id -> qualifiers.get(id).getName())
+                                .collect(joining(",\n    "))
+                        )
+                        .collect(joining(",\n")) +
+                "]."
+            );
+        }
+
+        // Lazy dependencies don't have to be resolved before their
+        // dependents, but they must be resolved eventually.
+        final Set<String> missing = new LinkedHashSet<>();
+        for (final Node<?> node : selected) {
+            for (final String dep : node.getDependencies()) {
+                if (LazyDependency.isKey(dep)
+                &&  !local.get(qualifiers.intern(dep).getId())) {
+                    final String target = LazyDependency.qualifier(dep);
+                    final Qualifier interned = qualifiers.find(target);
+                    if ((interned == null || !available.get(interned.getId()))
+                    &&  !external.test(dep)) {
+                        missing.add(node.getQualifier() + " -> " + target);
+                    }
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new InjectorException(
+                "Error! The following lazy dependencies can't be resolved: " +
+                missing + "."
+            );
+        }
+
+        return layers;
+    }
+
+    /**
+     * Returns the ids of all the names that the specified node provides once
+     * it has been resolved, namely its qualifier, the names of all the
+     * ancestors of its type and the {@link LazyDependency lazy dependencies}
+     * that its type provides.
+     *
+     * @param qualifiers  table to intern the names in
+     * @param qualifier   the qualifier of the node
+     * @param node        the node
+     * @return            ids of the provided names
+     */
+    private static int[] provides(QualifierTable qualifiers,
+                                  String qualifier,
+                                  Node<?> node) {
+        final Class<?>[] ancestors = ancestors(node.getType());
+        final String[] suppliers = LazyDependency.provided(node.getType());
+        final int[] ids = new int[ancestors.length + suppliers.length + 1];
+        ids[0] = qualifiers.intern(qualifier).getId();
+        for (int i = 0; i < ancestors.length; i++) {
+            ids[i + 1] = qualifiers.intern(ancestors[i].getName()).getId();
+        }
+        for (int i = 0; i < suppliers.length; i++) {
+            ids[ancestors.length + i + 1] = qualifiers.intern(suppliers[i]).getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the ids of all the names that any of the nodes in the specified
+     * graph would provide if it was resolved.
+     *
+     * @param injectables  the nodes, mapped by their qualifiers
+     * @param qualifiers   table to intern the names in
+     * @return             ids of the provided names
+     */
+    private static BitSet provided(Map<String, Set<Node<?>>> injectables,
+                                   QualifierTable qualifiers) {
+        final BitSet provided = new BitSet();
+        injectables.forEach((qualifier, nodes) -> nodes.forEach(node -> {
+            for (final int id : provides(qualifiers, qualifier, node)) {
+                provided.set(id);
+            }
+        }));
+        return provided;
+    }
+
+    /**
+     * A node that is waiting for some of its dependencies to be resolved.
+     */
+    private static final class Pending {
+
+        private final int index;
+        private final int order;
+        private final Node<?> node;
+        private int remaining;
+
+        Pending(int index, int order, Node<?> node) {
+            this.index     = index;
+            this.order     = order;
+            this.node      = node;
+            this.remaining = node.getDependencies().size();
+        }
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private DependencyResolver() {}
+}
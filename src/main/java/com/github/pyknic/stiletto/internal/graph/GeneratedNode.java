@@ -0,0 +1,101 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.processor.GeneratedFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of the {@link Node} interface that creates instances using a
+ * {@link GeneratedFactory} instead of reflection.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class GeneratedNode<T> implements Node<T> {
+
+    private final String qualifier;
+    private final GeneratedFactory<T> factory;
+    private final Set<String> dependencies;
+
+    public GeneratedNode(String qualifier, GeneratedFactory<T> factory) {
+        this.qualifier    = requireNonNull(qualifier);
+        this.factory      = requireNonNull(factory);
+        this.dependencies = unmodifiableSet(
+            new LinkedHashSet<>(factory.dependencies())
+        );
+    }
+
+    @Override
+    public String getQualifier() {
+        return qualifier;
+    }
+
+    @Override
+    public Class<T> getType() {
+        return factory.type();
+    }
+
+    @Override
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public Supplier<T> creator(Map<String, Object> dependencies) {
+        final Object[] values = factory.dependencies().stream()
+            .map(dependencies::get)
+            .toArray();
+
+        return () -> {
+            try {
+                return factory.create(values);
+            } catch (final RuntimeException ex) {
+                throw new InjectorException(
+                    "Failed to instantiate injectable type with qualifier " +
+                    qualifier + " using generated factory " +
+                    factory.getClass().getName() + ".", ex
+                );
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Node)) return false;
+
+        final Node<?> that = (Node<?>) o;
+        return qualifier.equals(that.getQualifier())
+            && dependencies.equals(that.getDependencies());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = qualifier.hashCode();
+        result = 31 * result + dependencies.hashCode();
+        return result;
+    }
+}
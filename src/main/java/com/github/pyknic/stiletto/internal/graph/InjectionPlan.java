@@ -0,0 +1,144 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.internal.util.MethodHandleUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.fields;
+import static java.lang.String.format;
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Immutable description of which member variables of a particular class should
+ * be injected, and with what qualifiers. The reflective analysis is only done
+ * once for every class, after which the plan is cached.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class InjectionPlan {
+
+    private static final ClassValue<InjectionPlan> PLANS =
+        new ClassValue<InjectionPlan>() {
+            @Override
+            protected InjectionPlan computeValue(Class<?> type) {
+                return new InjectionPlan(type);
+            }
+        };
+
+    /**
+     * Returns the injection plan for the specified class, analyzing it if this
+     * is the first time the class is requested.
+     *
+     * @param type  the class
+     * @return      the injection plan
+     */
+    public static InjectionPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private final Class<?> type;
+    private final Field[] fields;
+    private final String[] qualifiers;
+    private final MethodHandle[] setters;
+    private final Set<String> dependencies;
+
+    private InjectionPlan(Class<?> type) {
+        this.type   = type;
+        this.fields = Stream.of(fields(type))
+            .filter(f -> f.isAnnotationPresent(Inject.class))
+            .toArray(Field[]::new);
+
+        this.qualifiers = Stream.of(fields)
+            .map(f -> LazyDependency.of(
+                f.getType(),
+                f.getGenericType(),
+                f.getAnnotation(Inject.class)
+            )).toArray(String[]::new);
+
+        this.setters = Stream.of(fields)
+            .map(MethodHandleUtil::setterHandle)
+            .toArray(MethodHandle[]::new);
+
+        this.dependencies = unmodifiableSet(
+            new LinkedHashSet<>(asList(qualifiers))
+        );
+    }
+
+    /**
+     * Returns the qualifiers of all the member variables that are injected
+     * according to this plan.
+     *
+     * @return  set of dependencies
+     */
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Looks up the value of every injectable member variable in the specified
+     * map and returns a consumer that sets those values on any instance of the
+     * class that this plan is for.
+     *
+     * @param values  already injected instances
+     * @return        consumer that injects the values into an instance
+     *
+     * @throws InjectorException  if a qualifier is missing in the map
+     */
+    public Consumer<Object> bind(Map<String, Object> values) {
+        final MethodHandle[] bound = new MethodHandle[setters.length];
+        for (int i = 0; i < setters.length; i++) {
+            if (!values.containsKey(qualifiers[i])) {
+                throw new InjectorException(format(
+                    "Field '%s' in class '%s' has the qualifier '%s' " +
+                    "which is not injectable.",
+                    fields[i].getName(), type.getName(), qualifiers[i]
+                ));
+            }
+
+            bound[i] = insertArguments(setters[i], 1, values.get(qualifiers[i]));
+        }
+
+        return instance -> {
+            int i = 0;
+            try {
+                for (; i < bound.length; i++) {
+                    bound[i].invokeExact(instance);
+                }
+            } catch (final Throwable ex) {
+                throw new InjectorException(
+                    "Failed to inject member variable " + fields[i].getName() +
+                    " of type " + fields[i].getType().getName() +
+                    " with qualifier " + qualifiers[i] +
+                    " in class " + type.getName() + ".", ex
+                );
+            }
+        };
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.internal.util.StringUtil;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Naming convention for dependencies that are injected as a {@link Supplier}
+ * of the actual instance. A constructor parameter or member variable of the
+ * type {@code Supplier<X>} without an explicit qualifier depends on the name
+ * {@code Supplier<X>}, where {@code X} is the name of the supplied type. Such
+ * a dependency doesn't require {@code X} to be instantiated before the
+ * dependent, since the supplier only looks it up when it is invoked.
+ * <p>
+ * A type that implements {@code Supplier<X>} with a resolved type argument
+ * {@code X} {@link #provided(Class) provides} the name {@code Supplier<X>}.
+ * If such a type is installed, then the dependency is not lazy and refers to
+ * that instance instead. Suppliers of other types never affect it.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class LazyDependency {
+
+    /**
+     * The name of the {@link Supplier} interface.
+     */
+    public static final String SUPPLIER = Supplier.class.getName();
+
+    private static final String PREFIX = SUPPLIER + "<";
+    private static final String SUFFIX = ">";
+
+    private static final ClassValue<String[]> PROVIDED =
+        new ClassValue<String[]>() {
+            @Override
+            protected String[] computeValue(Class<?> type) {
+                final Set<String> keys = new LinkedHashSet<>();
+                collect(type, emptyMap(), keys);
+                return keys.toArray(new String[0]);
+            }
+        };
+
+    /**
+     * Returns the name of a lazy dependency on the specified qualifier.
+     *
+     * @param qualifier  the qualifier
+     * @return           the name of the lazy dependency
+     */
+    public static String key(String qualifier) {
+        return PREFIX + qualifier + SUFFIX;
+    }
+
+    /**
+     * Returns {@code true} if the specified dependency is lazy.
+     *
+     * @param dependency  the name of the dependency
+     * @return            {@code true} if it is lazy
+     */
+    public static boolean isKey(String dependency) {
+        return dependency.startsWith(PREFIX) && dependency.endsWith(SUFFIX);
+    }
+
+    /**
+     * Returns the qualifier that the specified lazy dependency refers to.
+     *
+     * @param key  the name of the lazy dependency
+     * @return     the qualifier
+     */
+    public static String qualifier(String key) {
+        return key.substring(PREFIX.length(), key.length() - SUFFIX.length());
+    }
+
+    /**
+     * Returns the names of the lazy dependencies that instances of the
+     * specified type can be injected as, namely {@code Supplier<X>} for every
+     * {@link Supplier} that the type implements with a resolved type argument
+     * {@code X}. The result is cached for as long as the class is loaded.
+     *
+     * @param type  the type
+     * @return      the lazy dependencies that the type provides
+     */
+    public static String[] provided(Class<?> type) {
+        return PROVIDED.get(type);
+    }
+
+    /**
+     * Returns the name of the dependency of a constructor parameter or member
+     * variable. If it has the {@link Inject}-annotation with a value, then
+     * that is the qualifier. Otherwise the name of the type is used, unless
+     * the type is a {@link Supplier} with a type argument. Then the
+     * dependency is lazy and refers to the name of the type argument instead.
+     *
+     * @param type         the type of the parameter or variable
+     * @param genericType  the generic type of the parameter or variable
+     * @param inject       the annotation, or {@code null}
+     * @return             the name of the dependency
+     */
+    public static String of(Class<?> type, Type genericType, Inject inject) {
+        final Optional<String> qualifier = Optional.ofNullable(inject)
+            .map(Inject::value)
+            .filter(StringUtil::notEmpty);
+
+        if (qualifier.isPresent()) {
+            return qualifier.get();
+        }
+
+        if (type == Supplier.class && genericType instanceof ParameterizedType) {
+            final Optional<String> name = name(
+                ((ParameterizedType) genericType).getActualTypeArguments()[0]
+            );
+
+            if (name.isPresent()) {
+                return key(name.get());
+            }
+        }
+
+        return type.getName();
+    }
+
+    /**
+     * Adds the lazy dependencies provided by the specified type and all of its
+     * ancestors to the specified set.
+     *
+     * @param type      the type, with or without type arguments
+     * @param bindings  what the type variables of the subtype are bound to
+     * @param keys      the set to add the lazy dependencies to
+     */
+    private static void collect(Type type,
+                                Map<TypeVariable<?>, Type> bindings,
+                                Set<String> keys) {
+
+        final Class<?> raw;
+        final Map<TypeVariable<?>, Type> resolved = new HashMap<>();
+
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterized = (ParameterizedType) type;
+            raw = (Class<?>) parameterized.getRawType();
+
+            final Type[] arguments = parameterized.getActualTypeArguments();
+            final TypeVariable<?>[] variables = raw.getTypeParameters();
+            for (int i = 0; i < variables.length; i++) {
+                final Type bound = bindings.get(arguments[i]);
+                resolved.put(variables[i], bound == null ? arguments[i] : bound);
+            }
+        } else if (type instanceof Class) {
+            raw = (Class<?>) type;
+        } else {
+            return;
+        }
+
+        if (raw == Supplier.class) {
+            name(resolved.get(raw.getTypeParameters()[0]))
+                .ifPresent(name -> keys.add(key(name)));
+            return;
+        }
+
+        if (raw.getGenericSuperclass() != null) {
+            collect(raw.getGenericSuperclass(), resolved, keys);
+        }
+
+        for (final Type iface : raw.getGenericInterfaces()) {
+            collect(iface, resolved, keys);
+        }
+    }
+
+    /**
+     * Returns the name of the class of the specified type argument, or an
+     * empty {@code Optional} if it is not resolved to a class.
+     *
+     * @param argument  the type argument, or {@code null}
+     * @return          the name of the class
+     */
+    private static Optional<String> name(Type argument) {
+        final Type raw = argument instanceof ParameterizedType
+            ? ((ParameterizedType) argument).getRawType()
+            : argument;
+
+        return raw instanceof Class
+            ? Optional.of(((Class<?>) raw).getName())
+            : Optional.empty();
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private LazyDependency() {}
+}
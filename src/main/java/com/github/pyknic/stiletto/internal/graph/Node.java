@@ -18,6 +18,7 @@ package com.github.pyknic.stiletto.internal.graph;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * An injectable node with a set of {@link #getDependencies() dependencies}.
@@ -34,6 +35,15 @@ public interface Node<T> {
      */
     String getQualifier();
 
+    /**
+     * The class that instances of this node will have.
+     *
+     * @return  the instance type
+     *
+     * @since 1.0.5
+     */
+    Class<T> getType();
+
     /**
      * Qualifiers for the dependencies that are needed to create this instance.
      *
@@ -48,6 +58,21 @@ public interface Node<T> {
      * @param dependencies  already injected instances
      * @return              the created instance
      */
-    T instantiate(Map<String, Object> dependencies);
+    default T instantiate(Map<String, Object> dependencies) {
+        return creator(dependencies).get();
+    }
+
+    /**
+     * Returns a supplier that creates new instances of the represented type.
+     * All the dependencies are looked up in the specified map once when this
+     * method is called, so the returned supplier only has to invoke the
+     * constructor and set the injectable fields.
+     *
+     * @param dependencies  already injected instances
+     * @return              supplier of new instances
+     *
+     * @since 1.0.5
+     */
+    Supplier<T> creator(Map<String, Object> dependencies);
 
 }
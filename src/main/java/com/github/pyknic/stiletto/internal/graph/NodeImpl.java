@@ -18,19 +18,21 @@ package com.github.pyknic.stiletto.internal.graph;
 
 import com.github.pyknic.stiletto.Inject;
 import com.github.pyknic.stiletto.InjectorException;
-import com.github.pyknic.stiletto.internal.util.StringUtil;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import static com.github.pyknic.stiletto.internal.util.ReflectionUtil.traverseFields;
+import static com.github.pyknic.stiletto.internal.util.MethodHandleUtil.constructorHandle;
+import static com.github.pyknic.stiletto.internal.util.MethodHandleUtil.supplierFactory;
+import static java.lang.invoke.MethodHandles.insertArguments;
 import static java.util.Objects.requireNonNull;
-import static java.util.Optional.of;
-import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.joining;
 
 /**
@@ -59,75 +61,166 @@ public final class NodeImpl<T> implements Node<T> {
         return qualifier;
     }
 
+    @Override
+    public Class<T> getType() {
+        return constructor.getDeclaringClass();
+    }
+
     @Override
     public Set<String> getDependencies() {
         return dependencies;
     }
 
+    /**
+     * Returns the constructor that this node invokes.
+     *
+     * @return  the constructor
+     *
+     * @since 1.0.5
+     */
+    public Constructor<T> getConstructor() {
+        return constructor;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since the instance is only created once, the constructor is invoked
+     * through a method handle instead of generating a class for it.
+     */
     @Override
     public T instantiate(Map<String, Object> dependencies) {
-        constructor.setAccessible(true);
+        return handleCreator(dependencies).get();
+    }
 
-        final Object[] values = Stream.of(constructor.getParameters())
-            .map(p -> dependencies.get(
-                ofNullable(p.getAnnotation(Inject.class))
-                    .map(Inject::value)
-                    .filter(StringUtil::notEmpty)
-                    .orElseGet(() -> p.getType().getName())
-            )).toArray();
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If possible, the returned supplier invokes the constructor through a
+     * class that is generated at runtime, so that it can be inlined by the
+     * JIT compiler. Otherwise, a method handle is used.
+     * <p>
+     * The class is generated the first time this method is invoked for the
+     * constructor, not when the injector is built. Only the constructor is
+     * invoked through it; member variables are still set through the method
+     * handles of the {@link InjectionPlan}.
+     */
+    @Override
+    public Supplier<T> creator(Map<String, Object> dependencies) {
+        final Optional<MethodHandle> factory = supplierFactory(constructor);
+        if (!factory.isPresent()) {
+            return handleCreator(dependencies);
+        }
 
+        final Object[] values = parameters(dependencies);
+        final Supplier<?> newInstance;
         try {
-            final T instance = constructor.newInstance(values);
-            traverseFields(instance.getClass())
-                .filter(f -> f.isAnnotationPresent(Inject.class))
-                .forEach(f -> {
-                    final String qualifier =
-                        of(f.getAnnotation(Inject.class).value())
-                            .filter(StringUtil::notEmpty)
-                            .orElseGet(() -> f.getType().getName());
-
-                    try {
-                        f.setAccessible(true);
-                        switch (f.getType().getName()) {
-                            case "long"    : f.setLong(instance, (Long) dependencies.get(qualifier)); break;
-                            case "int"     : f.setInt(instance, (Integer) dependencies.get(qualifier)); break;
-                            case "short"   : f.setShort(instance, (Short) dependencies.get(qualifier)); break;
-                            case "byte"    : f.setByte(instance, (Byte) dependencies.get(qualifier)); break;
-                            case "double"  : f.setDouble(instance, (Double) dependencies.get(qualifier)); break;
-                            case "float"   : f.setFloat(instance, (Float) dependencies.get(qualifier)); break;
-                            case "char"    : f.setChar(instance, (Character) dependencies.get(qualifier)); break;
-                            case "boolean" : f.setBoolean(instance, (Boolean) dependencies.get(qualifier)); break;
-                            default        : f.set(instance, dependencies.get(qualifier));
-                        }
-                    } catch (final IllegalAccessException ex) {
-                        throw new InjectorException(
-                            "Failed to inject member variable " + f.getName() +
-                            " of type " + f.getType().getName() +
-                            " with qualifier " + qualifier +
-                            " in class " + instance.getClass().getName() + "."
-                        );
-                    }
-                });
-
-            return instance;
-        } catch (final IllegalAccessException
-                     | InvocationTargetException
-                     | InstantiationException ex) {
-
-            throw new InjectorException(
-                "Failed to instantiate injectable type with qualifier " +
-                qualifier + " using constructor with parameters (" +
-                Stream.of(constructor.getParameters())
-                    .map(Parameter::getType)
-                    .map(Class::getName)
-                    .collect(joining(", ")) +
-                ") given the values (" +
-                Stream.of(values)
-                    .map(Object::toString)
-                    .collect(joining(", ")) +
-                ").", ex
+            newInstance = (Supplier<?>) factory.get().invokeWithArguments(values);
+        } catch (final Throwable ex) {
+            throw instantiationFailed(values, ex);
+        }
+
+        final Consumer<Object> injection =
+            InjectionPlan.of(constructor.getDeclaringClass())
+                .bind(dependencies);
+
+        return () -> {
+            final Object instance;
+            try {
+                instance = newInstance.get();
+            } catch (final Throwable ex) {
+                throw instantiationFailed(values, ex);
+            }
+
+            injection.accept(instance);
+
+            @SuppressWarnings("unchecked")
+            final T result = (T) instance;
+            return result;
+        };
+    }
+
+    /**
+     * Returns a supplier that invokes the constructor through a method handle
+     * with the parameters bound in advance.
+     *
+     * @param dependencies  already injected instances
+     * @return              supplier of new instances
+     */
+    private Supplier<T> handleCreator(Map<String, Object> dependencies) {
+        final Object[] values = parameters(dependencies);
+
+        // Bind the constructor parameters once so that the returned supplier
+        // only needs to invoke the constructor.
+        final MethodHandle newInstance;
+        try {
+            newInstance = insertArguments(
+                constructorHandle(constructor), 0, values
             );
+        } catch (final IllegalAccessException
+                     | ClassCastException
+                     | NullPointerException ex) {
+            throw instantiationFailed(values, ex);
         }
+
+        final Consumer<Object> injection =
+            InjectionPlan.of(constructor.getDeclaringClass())
+                .bind(dependencies);
+
+        return () -> {
+            final Object instance;
+            try {
+                instance = (Object) newInstance.invokeExact();
+            } catch (final Throwable ex) {
+                throw instantiationFailed(values, ex);
+            }
+
+            injection.accept(instance);
+
+            @SuppressWarnings("unchecked")
+            final T result = (T) instance;
+            return result;
+        };
+    }
+
+    /**
+     * Looks up the values of the constructor parameters in the specified map.
+     *
+     * @param dependencies  already injected instances
+     * @return              the constructor parameters
+     */
+    private Object[] parameters(Map<String, Object> dependencies) {
+        return Stream.of(constructor.getParameters())
+            .map(p -> dependencies.get(LazyDependency.of(
+                p.getType(),
+                p.getParameterizedType(),
+                p.getAnnotation(Inject.class)
+            ))).toArray();
+    }
+
+    /**
+     * Creates an exception that states that this node could not be
+     * instantiated using the specified constructor parameters.
+     *
+     * @param values  the constructor parameters
+     * @param cause   the cause
+     * @return        the exception
+     */
+    private InjectorException instantiationFailed(Object[] values,
+                                                  Throwable cause) {
+        return new InjectorException(
+            "Failed to instantiate injectable type with qualifier " +
+            qualifier + " using constructor with parameters (" +
+            Stream.of(constructor.getParameters())
+                .map(Parameter::getType)
+                .map(Class::getName)
+                .collect(joining(", ")) +
+            ") given the values (" +
+            Stream.of(values)
+                .map(String::valueOf)
+                .collect(joining(", ")) +
+            ").", cause
+        );
     }
 
     @Override
@@ -0,0 +1,66 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+/**
+ * An interned qualifier. Every qualifier is given a dense integer id by the
+ * {@link QualifierTable} that created it, which makes it possible to store
+ * things that are keyed on qualifiers in plain arrays. Two qualifiers from the
+ * same table are equal only if they are the same instance.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class Qualifier {
+
+    private final String name;
+    private final int id;
+
+    Qualifier(String name, int id) {
+        this.name = name;
+        this.id   = id;
+    }
+
+    /**
+     * Returns the name of this qualifier, as used in the public API.
+     *
+     * @return  the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the id of this qualifier. Ids are assigned in the order that
+     * qualifiers are interned, starting at zero.
+     *
+     * @return  the id
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of {@link Qualifier qualifiers} that makes sure that only one instance
+ * exists for every name. The table is not thread safe while qualifiers are
+ * being interned, but it can be read concurrently once that is done.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class QualifierTable {
+
+    private final Map<String, Qualifier> byName;
+    private final List<Qualifier> byId;
+
+    public QualifierTable() {
+        this.byName = new HashMap<>();
+        this.byId   = new ArrayList<>();
+    }
+
+    /**
+     * Returns the qualifier with the specified name, creating it with the next
+     * free id if it is not already in the table.
+     *
+     * @param name  the name
+     * @return      the interned qualifier
+     */
+    public Qualifier intern(String name) {
+        Qualifier qualifier = byName.get(name);
+        if (qualifier == null) {
+            qualifier = new Qualifier(name, byId.size());
+            byName.put(name, qualifier);
+            byId.add(qualifier);
+        }
+        return qualifier;
+    }
+
+    /**
+     * Returns the qualifier with the specified name, or {@code null} if it has
+     * not been interned in this table.
+     *
+     * @param name  the name
+     * @return      the qualifier, or {@code null}
+     */
+    public Qualifier find(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Returns the qualifier with the specified id.
+     *
+     * @param id  the id
+     * @return    the qualifier
+     *
+     * @throws IndexOutOfBoundsException  if no qualifier has that id
+     */
+    public Qualifier get(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns the number of qualifiers in this table, which is also the lowest
+     * id that has not been assigned yet.
+     *
+     * @return  the number of qualifiers
+     */
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.scope;
+
+import com.github.pyknic.stiletto.InjectorException;
+import com.github.pyknic.stiletto.KeyedScope;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of the {@link KeyedScope}-interface. The instances
+ * of each key are kept in a concurrent map, and the keys themselves in a
+ * bounded map that evicts the least recently used key when it is full.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class KeyedScopeImpl implements KeyedScope {
+
+    private final Supplier<?> key;
+    private final Map<Object, Map<String, Object>> instances;
+
+    public KeyedScopeImpl(Supplier<?> key, int maximumKeys) {
+        if (maximumKeys <= 0) {
+            throw new IllegalArgumentException(
+                "Maximum number of keys must be positive, was " +
+                maximumKeys + "."
+            );
+        }
+
+        this.key       = requireNonNull(key);
+        this.instances = new LinkedHashMap<Object, Map<String, Object>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Object, Map<String, Object>> eldest) {
+                return size() > maximumKeys;
+            }
+        };
+    }
+
+    @Override
+    public Object get(String qualifier, Supplier<?> creator) {
+        final Object current = key.get();
+        if (current == null) {
+            throw new InjectorException(
+                "Error! No scope key is active for qualifier " +
+                qualifier + "."
+            );
+        }
+
+        final Map<String, Object> scoped;
+        synchronized (instances) {
+            scoped = instances.computeIfAbsent(
+                current, k -> new ConcurrentHashMap<>()
+            );
+        }
+
+        // The creator might request other types in this scope, so it can't
+        // be invoked while holding a lock on the map.
+        final Object existing = scoped.get(qualifier);
+        if (existing != null) {
+            return existing;
+        }
+
+        final Object created = creator.get();
+        final Object raced   = scoped.putIfAbsent(qualifier, created);
+        return raced == null ? created : raced;
+    }
+
+    @Override
+    public void close(Object key) {
+        synchronized (instances) {
+            instances.remove(key);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.scope;
+
+import com.github.pyknic.stiletto.PooledScope;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of the {@link PooledScope}-interface, backed by a
+ * bounded concurrent queue of released instances.
+ *
+ * @param <T>  the pooled type
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class PooledScopeImpl<T> implements PooledScope<T> {
+
+    private final Queue<T> pool;
+    private final Consumer<? super T> reset;
+
+    public PooledScopeImpl(int capacity, Consumer<? super T> reset) {
+        this.pool  = new ArrayBlockingQueue<>(capacity);
+        this.reset = requireNonNull(reset);
+    }
+
+    @Override
+    public Object get(String qualifier, Supplier<?> creator) {
+        final T pooled = pool.poll();
+        return pooled == null ? creator.get() : pooled;
+    }
+
+    @Override
+    public void release(T instance) {
+        reset.accept(requireNonNull(instance));
+        pool.offer(instance);
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.scope;
+
+import com.github.pyknic.stiletto.Scope;
+
+import java.util.function.Supplier;
+
+/**
+ * The default {@link Scope}. Singletons are managed by the injector directly,
+ * so this scope is only used as a marker and should never be invoked.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class SingletonScope implements Scope {
+
+    public static final Scope INSTANCE = new SingletonScope();
+
+    @Override
+    public Object get(String qualifier, Supplier<?> creator) {
+        throw new UnsupportedOperationException(
+            "Singletons are managed by the injector."
+        );
+    }
+
+    private SingletonScope() {}
+}
@@ -0,0 +1,52 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.scope;
+
+import com.github.pyknic.stiletto.Scope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link Scope} that retains one instance of every type per thread.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class ThreadScope implements Scope {
+
+    private final ThreadLocal<Map<String, Object>> instances;
+
+    public ThreadScope() {
+        this.instances = ThreadLocal.withInitial(HashMap::new);
+    }
+
+    @Override
+    public Object get(String qualifier, Supplier<?> creator) {
+        final Map<String, Object> local = instances.get();
+
+        // The creator might request other types in this scope, so the map
+        // can't be modified until it returns.
+        Object instance = local.get(qualifier);
+        if (instance == null) {
+            instance = creator.get();
+            local.put(qualifier, instance);
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Implementations of the built-in {@link com.github.pyknic.stiletto.Scope
+ * scopes} are located in this package.
+ * <p>
+ * This is an internal package that should not be used outside this project.
+ */
+package com.github.pyknic.stiletto.internal.scope;
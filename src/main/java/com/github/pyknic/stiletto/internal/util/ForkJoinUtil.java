@@ -0,0 +1,119 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Some common utility methods for splitting work across the threads of a
+ * {@link ForkJoinPool}.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class ForkJoinUtil {
+
+    /**
+     * Action that is invoked for a range of indexes.
+     */
+    @FunctionalInterface
+    public interface RangeAction {
+
+        /**
+         * Performs the action for every index from {@code from} (inclusive)
+         * to {@code to} (exclusive).
+         *
+         * @param from  the first index
+         * @param to    the index after the last one
+         */
+        void accept(int from, int to);
+    }
+
+    /**
+     * Splits the indexes from zero (inclusive) to {@code length} (exclusive)
+     * into a few chunks per thread in the specified pool and invokes the
+     * action once for every chunk in the pool. Every chunk is handled in a
+     * tight loop by the action, while there are still enough chunks to
+     * balance the load between the threads. This method returns once all
+     * the chunks have been handled.
+     * <p>
+     * If there is at most one chunk, then the action is invoked directly in
+     * the calling thread.
+     *
+     * @param pool    the pool to invoke the action in
+     * @param length  the number of indexes
+     * @param action  the action to invoke for every chunk
+     */
+    public static void forEachChunk(ForkJoinPool pool,
+                                    int length,
+                                    RangeAction action) {
+
+        final int chunks = Math.min(length, pool.getParallelism() * 4);
+        if (chunks <= 1) {
+            action.accept(0, length);
+        } else {
+            pool.invoke(new Chunks(action, length, chunks, 0, chunks));
+        }
+    }
+
+    /**
+     * Task that handles the chunks from {@code first} (inclusive) to
+     * {@code last} (exclusive) by splitting them in half until only a single
+     * chunk remains.
+     */
+    private static final class Chunks extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int length;
+        private final int chunks;
+        private final int first;
+        private final int last;
+
+        Chunks(RangeAction action, int length, int chunks, int first, int last) {
+            this.action = action;
+            this.length = length;
+            this.chunks = chunks;
+            this.first  = first;
+            this.last   = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                action.accept(start(first), start(last));
+            } else {
+                final int middle = (first + last) >>> 1;
+                invokeAll(
+                    new Chunks(action, length, chunks, first, middle),
+                    new Chunks(action, length, chunks, middle, last)
+                );
+            }
+        }
+
+        private int start(int chunk) {
+            return (int) ((long) chunk * length / chunks);
+        }
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private ForkJoinUtil() {}
+}
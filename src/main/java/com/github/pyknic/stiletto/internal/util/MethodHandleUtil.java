@@ -0,0 +1,251 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.util;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Some common utility methods for converting reflective members into
+ * {@link MethodHandle method handles} that can be invoked without the overhead
+ * of reflection.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class MethodHandleUtil {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Handle for {@link Field#set(Object, Object)}, used as a fallback for
+     * fields that can't be unreflected directly (like {@code final} fields).
+     */
+    private static final MethodHandle FIELD_SET;
+
+    /**
+     * Handle for {@code MethodHandles.privateLookupIn(Class, Lookup)}, or
+     * {@code null} if it is not available (before Java 9).
+     */
+    private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+    /**
+     * The factories created by {@link #supplierFactory(Constructor)}, so that
+     * only one class is generated for every constructor.
+     */
+    private static final ClassValue<ConcurrentMap<Constructor<?>, Optional<MethodHandle>>>
+        SUPPLIER_FACTORIES = new ClassValue<ConcurrentMap<Constructor<?>, Optional<MethodHandle>>>() {
+            @Override
+            protected ConcurrentMap<Constructor<?>, Optional<MethodHandle>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    static {
+        try {
+            FIELD_SET = LOOKUP.findVirtual(Field.class, "set",
+                methodType(void.class, Object.class, Object.class)
+            );
+        } catch (final NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+
+        MethodHandle privateLookupIn;
+        try {
+            privateLookupIn = LOOKUP.findStatic(MethodHandles.class,
+                "privateLookupIn", methodType(MethodHandles.Lookup.class,
+                    Class.class, MethodHandles.Lookup.class)
+            );
+        } catch (final NoSuchMethodException | IllegalAccessException ex) {
+            privateLookupIn = null;
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+    }
+
+    /**
+     * Returns a method handle that invokes the specified constructor, taking
+     * the same parameters as the constructor and returning an {@code Object}.
+     * The constructor does not need to be accessible.
+     *
+     * @param constructor  the constructor
+     * @return             handle that invokes the constructor
+     *
+     * @throws IllegalAccessException  if access checking fails
+     */
+    public static MethodHandle constructorHandle(Constructor<?> constructor)
+    throws IllegalAccessException {
+        constructor.setAccessible(true);
+        final MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+        return handle.asType(handle.type().changeReturnType(Object.class));
+    }
+
+    /**
+     * Returns a method handle that takes the same parameters as the specified
+     * constructor and returns a {@link Supplier} that invokes the constructor
+     * with those parameters. The supplier is an instance of a class that is
+     * generated at runtime using the {@link LambdaMetafactory}, so unlike a
+     * bound method handle, it can be inlined by the JIT compiler.
+     * <p>
+     * The class is only generated the first time this method is invoked for a
+     * particular constructor. If no class can be generated, for an example if
+     * the constructor isn't accessible, then an empty {@code Optional} is
+     * returned and {@link #constructorHandle(Constructor)} should be used
+     * instead.
+     *
+     * @param constructor  the constructor
+     * @return             handle that creates suppliers, or empty
+     */
+    public static Optional<MethodHandle> supplierFactory(Constructor<?> constructor) {
+        return SUPPLIER_FACTORIES.get(constructor.getDeclaringClass())
+            .computeIfAbsent(constructor, MethodHandleUtil::generateSupplierFactory);
+    }
+
+    private static Optional<MethodHandle> generateSupplierFactory(Constructor<?> constructor) {
+        final Class<?> type = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return Optional.empty();
+        }
+
+        // A private lookup in the type itself is preferred since it can
+        // access non-public constructors and resolves types the same way as
+        // the type does. It is not available before Java 9, and can't be used
+        // by the metafactory across modules. Otherwise, the lookup of this
+        // class can be used if all the involved types are visible from here.
+        final Class<?>[] params = constructor.getParameterTypes();
+        final Optional<MethodHandle> generated = privateLookupIn(type)
+            .flatMap(lookup -> generateSupplierFactory(lookup, type, params));
+
+        if (generated.isPresent()
+        || !isAccessible(type)
+        || !Stream.of(params).allMatch(MethodHandleUtil::isAccessible)) {
+            return generated;
+        }
+
+        return generateSupplierFactory(LOOKUP, type, params);
+    }
+
+    private static Optional<MethodHandle> generateSupplierFactory(
+            MethodHandles.Lookup lookup, Class<?> type, Class<?>[] params) {
+
+        try {
+            final MethodHandle impl = lookup.findConstructor(
+                type, methodType(void.class, params)
+            );
+
+            return Optional.of(LambdaMetafactory.metafactory(
+                lookup, "get", methodType(Supplier.class, params),
+                methodType(Object.class), impl, methodType(type)
+            ).getTarget());
+        } catch (final NoSuchMethodException
+                     | IllegalAccessException
+                     | LambdaConversionException
+                     | LinkageError
+                     | SecurityException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<MethodHandles.Lookup> privateLookupIn(Class<?> type) {
+        if (PRIVATE_LOOKUP_IN == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of((MethodHandles.Lookup)
+                PRIVATE_LOOKUP_IN.invokeExact(type, LOOKUP));
+        } catch (final Throwable ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the specified type is public and can be loaded
+     * by the class loader of this class.
+     *
+     * @param type  the type
+     * @return      {@code true} if it is accessible from this class
+     */
+    private static boolean isAccessible(Class<?> type) {
+        Class<?> component = type;
+        while (component.isArray()) {
+            component = component.getComponentType();
+        }
+
+        if (component.isPrimitive()) {
+            return true;
+        }
+
+        for (Class<?> c = component; c != null; c = c.getDeclaringClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+
+        try {
+            return Class.forName(component.getName(), false,
+                MethodHandleUtil.class.getClassLoader()) == component;
+        } catch (final ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a method handle of the type {@code (Object, Object)void} that
+     * sets the specified field of the first argument to the second argument.
+     * Primitive fields are unboxed automatically. If the field is static, then
+     * the first argument is ignored. The field does not need to be accessible.
+     *
+     * @param field  the field
+     * @return       handle that sets the field
+     */
+    public static MethodHandle setterHandle(Field field) {
+        field.setAccessible(true);
+
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = dropArguments(handle, 0, Object.class);
+            }
+        } catch (final IllegalAccessException ex) {
+            // Final fields can only be set using reflection.
+            handle = FIELD_SET.bindTo(field);
+        }
+
+        return handle.asType(
+            methodType(void.class, Object.class, Object.class)
+        );
+    }
+
+    /**
+     * Should never be invoked.
+     */
+    private MethodHandleUtil() {}
+}
@@ -17,16 +17,60 @@
 package com.github.pyknic.stiletto.internal.util;
 
 import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * Some common utility methods for analyzing classes with reflection.
+ * <p>
+ * The ancestors and fields of every class are only computed once, after which
+ * they are cached for as long as the class is loaded.
  *
  * @author  Emil Forslund
  * @since   1.0.0
  */
 public final class ReflectionUtil {
 
+    private static final ClassValue<Class<?>[]> ANCESTORS =
+        new ClassValue<Class<?>[]>() {
+            @Override
+            protected Class<?>[] computeValue(Class<?> type) {
+                final Set<Class<?>> ancestors = new LinkedHashSet<>();
+                ancestors.add(type);
+
+                final Class<?> parent = type.getSuperclass();
+                if (parent != null) {
+                    Collections.addAll(ancestors, ancestors(parent));
+                }
+
+                for (final Class<?> iface : type.getInterfaces()) {
+                    Collections.addAll(ancestors, ancestors(iface));
+                }
+
+                return ancestors.toArray(new Class<?>[0]);
+            }
+        };
+
+    private static final ClassValue<Field[]> FIELDS =
+        new ClassValue<Field[]>() {
+            @Override
+            protected Field[] computeValue(Class<?> type) {
+                final Field[] declared = type.getDeclaredFields();
+                final Class<?> parent  = type.getSuperclass();
+                if (parent == null) {
+                    return declared;
+                }
+
+                final Field[] inherited = fields(parent);
+                final Field[] fields = new Field[inherited.length + declared.length];
+                System.arraycopy(inherited, 0, fields, 0, inherited.length);
+                System.arraycopy(declared, 0, fields, inherited.length, declared.length);
+                return fields;
+            }
+        };
+
     /**
      * Returns a stream of all the member fields for the specified class,
      * including inherited fields from any ancestors. This includes public,
@@ -36,16 +80,7 @@ public final class ReflectionUtil {
      * @return       stream of fields
      */
     public static Stream<Field> traverseFields(Class<?> clazz) {
-        final Class<?> parent = clazz.getSuperclass();
-        final Stream<Field> inherited;
-
-        if (parent != null) {
-            inherited = traverseFields(parent);
-        } else {
-            inherited = Stream.empty();
-        }
-
-        return Stream.concat(inherited, Stream.of(clazz.getDeclaredFields()));
+        return Stream.of(fields(clazz));
     }
 
     /**
@@ -57,26 +92,35 @@ public final class ReflectionUtil {
      * @return       stream of ancestors (including {@code clazz})
      */
     public static Stream<Class<?>> traverseAncestors(Class<?> clazz) {
-        final Class<?>[] interfaces = clazz.getInterfaces();
-        if (clazz.getSuperclass() == null) {
-            if (interfaces.length == 0) {
-                return Stream.of(clazz);
-            } else {
-                return Stream.concat(
-                    Stream.of(clazz),
-                    Stream.of(clazz.getInterfaces())
-                        .flatMap(ReflectionUtil::traverseAncestors)
-                ).distinct();
-            }
-        } else {
-            return Stream.concat(
-                Stream.of(clazz),
-                Stream.concat(
-                    Stream.of(clazz.getSuperclass()),
-                    Stream.of(clazz.getInterfaces())
-                ).flatMap(ReflectionUtil::traverseAncestors)
-            ).distinct();
-        }
+        return Stream.of(ancestors(clazz));
+    }
+
+    /**
+     * Returns the cached array of member fields that
+     * {@link #traverseFields(Class)} streams over. The array is shared and
+     * must not be modified.
+     *
+     * @param clazz  the class to traverse
+     * @return       array of fields, inherited ones first
+     *
+     * @since 1.0.5
+     */
+    public static Field[] fields(Class<?> clazz) {
+        return FIELDS.get(clazz);
+    }
+
+    /**
+     * Returns the cached array of ancestors that
+     * {@link #traverseAncestors(Class)} streams over. The array is shared and
+     * must not be modified.
+     *
+     * @param clazz  the first class in the tree
+     * @return       array of distinct ancestors (including {@code clazz})
+     *
+     * @since 1.0.5
+     */
+    public static Class<?>[] ancestors(Class<?> clazz) {
+        return ANCESTORS.get(clazz);
     }
 
     /**
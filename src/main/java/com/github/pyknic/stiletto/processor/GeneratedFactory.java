@@ -0,0 +1,76 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.processor;
+
+import java.util.List;
+
+/**
+ * A factory for a particular type that has been generated at compile time by
+ * the {@link InjectProcessor}. If a generated factory exists for a type, then
+ * the injector will use it instead of reflection to create instances of that
+ * type.
+ * <p>
+ * This interface is only intended to be implemented by generated code. The
+ * generated factory for a type is located using the
+ * {@link #factoryName(String)} naming convention, so that only the factories
+ * of the types that are actually used are loaded.
+ *
+ * @param <T>  the type created by this factory
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public interface GeneratedFactory<T> {
+
+    /**
+     * Returns the name of the factory generated for the type with the
+     * specified binary name.
+     *
+     * @param binaryName  the {@link Class#getName() name} of the type
+     * @return            the name of the generated factory
+     */
+    static String factoryName(String binaryName) {
+        return binaryName.replace('$', '_') + "_StilettoFactory";
+    }
+
+    /**
+     * Returns the type created by this factory.
+     *
+     * @return  the created type
+     */
+    Class<T> type();
+
+    /**
+     * Returns the qualifiers of all the values needed to create an instance,
+     * in the same order as they should be passed to {@link #create(Object...)}.
+     * The constructor parameters come first, followed by any member variables
+     * that should be injected.
+     *
+     * @return  the dependencies of the type
+     */
+    List<String> dependencies();
+
+    /**
+     * Creates a new instance of the type using the specified values, ordered
+     * the same way as the {@link #dependencies()}.
+     *
+     * @param dependencies  the values to inject
+     * @return              the created instance
+     */
+    T create(Object... dependencies);
+
+}
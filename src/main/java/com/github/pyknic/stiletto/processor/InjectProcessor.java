@@ -0,0 +1,479 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.processor;
+
+import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.Provider;
+import com.github.pyknic.stiletto.internal.graph.LazyDependency;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static javax.lang.model.element.Modifier.*;
+
+/**
+ * Annotation processor that generates a {@link GeneratedFactory} for every
+ * class that is annotated with {@link Provider}, annotated with {@link Inject}
+ * or has a constructor annotated with {@link Inject}. The factories invoke the
+ * constructor and set the injectable member variables directly, so that no
+ * reflection is needed at runtime.
+ * <p>
+ * A factory can only be generated if the constructor that would be selected by
+ * the injector is unambiguous, and if that constructor and all the injectable
+ * member variables can be accessed from the package of the class. Member
+ * variables that are {@code private}, {@code final} or {@code static} can not
+ * be set from generated code. If a factory can't be generated, the injector
+ * falls back to reflection for that class.
+ * <p>
+ * The processor also writes an index of all the classes annotated with
+ * {@link Provider} to {@link #PROVIDER_INDEX}, so that the injector doesn't
+ * have to scan the classpath to find them.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@SupportedAnnotationTypes({
+    "com.github.pyknic.stiletto.Inject",
+    "com.github.pyknic.stiletto.Provider"
+})
+public final class InjectProcessor extends AbstractProcessor {
+
+    /**
+     * Location of the index of {@link Provider}-annotated classes. Every line
+     * in the index holds the binary name of a class, optionally followed by a
+     * tab and the qualifier from the annotation.
+     */
+    public static final String PROVIDER_INDEX =
+        "META-INF/stiletto/providers.idx";
+
+    private final Map<String, String> providers = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+                           RoundEnvironment env) {
+
+        if (env.processingOver()) {
+            writeProviderIndex();
+        } else {
+            final Set<TypeElement> types = new LinkedHashSet<>(
+                ElementFilter.typesIn(env.getElementsAnnotatedWith(Provider.class))
+            );
+
+            types.forEach(type -> providers.put(
+                elements().getBinaryName(type).toString(),
+                type.getAnnotation(Provider.class).value()
+            ));
+
+            for (final Element element : env.getElementsAnnotatedWith(Inject.class)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    types.add((TypeElement) element);
+                } else if (element.getKind() == ElementKind.CONSTRUCTOR) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+
+            types.forEach(this::generate);
+        }
+
+        // The annotations belong to this library, so they are claimed to
+        // avoid the warning about unclaimed annotations from -Xlint:processing.
+        return true;
+    }
+
+    /**
+     * Generates a factory for the specified type if possible.
+     *
+     * @param type  the type to generate a factory for
+     */
+    private void generate(TypeElement type) {
+        final PackageElement pkg = elements().getPackageOf(type);
+
+        if (type.getKind() != ElementKind.CLASS
+        ||  type.getModifiers().contains(ABSTRACT)
+        ||  (type.getNestingKind() == NestingKind.MEMBER
+            && !type.getModifiers().contains(STATIC))
+        ||  !isAccessible(type, pkg)) {
+            return;
+        }
+
+        // Select the constructor the same way as the injector would. The
+        // factory can only be generated if there is exactly one candidate.
+        final List<ExecutableElement> constructors =
+            ElementFilter.constructorsIn(type.getEnclosedElements());
+
+        final List<ExecutableElement> annotated = constructors.stream()
+            .filter(c -> c.getAnnotation(Inject.class) != null)
+            .collect(toList());
+
+        final List<ExecutableElement> candidates =
+            annotated.isEmpty() ? constructors : annotated;
+
+        if (candidates.size() != 1
+        ||  candidates.get(0).getModifiers().contains(PRIVATE)) {
+            return;
+        }
+
+        final List<String> qualifiers = new ArrayList<>();
+        final List<String> casts      = new ArrayList<>();
+
+        for (final VariableElement param : candidates.get(0).getParameters()) {
+            if (!describe(param, pkg, qualifiers, casts)) {
+                return;
+            }
+        }
+
+        final List<VariableElement> fields = injectableFields(type);
+        for (final VariableElement field : fields) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            final TypeElement declaring = (TypeElement) field.getEnclosingElement();
+
+            if (modifiers.contains(PRIVATE)
+            ||  modifiers.contains(FINAL)
+            ||  modifiers.contains(STATIC)
+            ||  !isAccessible(declaring, pkg)
+            ||  (!modifiers.contains(PUBLIC)
+                && !elements().getPackageOf(declaring).equals(pkg))
+            ||  !describe(field, pkg, qualifiers, casts)) {
+                return;
+            }
+        }
+
+        final String typeName = types().erasure(type.asType()).toString();
+        final String factory  = GeneratedFactory.factoryName(
+            elements().getBinaryName(type).toString()
+        );
+
+        final int params = candidates.get(0).getParameters().size();
+        final StringBuilder code = new StringBuilder();
+
+        if (!pkg.isUnnamed()) {
+            code.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+
+        code.append("/**\n")
+            .append(" * Factory for {@link ").append(typeName).append("}")
+            .append(" generated by the Stiletto annotation processor.\n")
+            .append(" */\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ")
+            .append(factory.substring(factory.lastIndexOf('.') + 1))
+            .append("\nimplements ").append(GeneratedFactory.class.getName())
+            .append('<').append(typeName).append("> {\n\n")
+
+            .append("    private static final java.util.List<String> DEPENDENCIES =\n")
+            .append("        java.util.Collections.unmodifiableList(")
+            .append("java.util.Arrays.<String>asList(")
+            .append(qualifiers.stream()
+                .map(q -> "\n            " + elements().getConstantExpression(q))
+                .collect(joining(",")))
+            .append("\n        ));\n\n")
+
+            .append("    @Override\n")
+            .append("    public Class<").append(typeName).append("> type() {\n")
+            .append("        return ").append(typeName).append(".class;\n")
+            .append("    }\n\n")
+
+            .append("    @Override\n")
+            .append("    public java.util.List<String> dependencies() {\n")
+            .append("        return DEPENDENCIES;\n")
+            .append("    }\n\n")
+
+            .append("    @Override\n")
+            .append("    public ").append(typeName)
+            .append(" create(Object... dependencies) {\n")
+            .append("        final ").append(typeName).append(" instance = new ")
+            .append(typeName).append('(');
+
+        for (int i = 0; i < params; i++) {
+            code.append(i == 0 ? "\n" : ",\n")
+                .append("            (").append(casts.get(i))
+                .append(") dependencies[").append(i).append(']');
+        }
+
+        code.append(");\n");
+
+        for (int i = 0; i < fields.size(); i++) {
+            final VariableElement field = fields.get(i);
+            final Element declaring = field.getEnclosingElement();
+
+            // Fields in a superclass are accessed through an upcast in case
+            // they are hidden by a field with the same name in a subclass.
+            if (declaring.equals(type)) {
+                code.append("        instance.");
+            } else {
+                code.append("        ((")
+                    .append(types().erasure(declaring.asType()))
+                    .append(") instance).");
+            }
+
+            code.append(field.getSimpleName())
+                .append(" = (").append(casts.get(params + i))
+                .append(") dependencies[").append(params + i).append("];\n");
+        }
+
+        code.append("        return instance;\n")
+            .append("    }\n")
+            .append("}\n");
+
+        try (final Writer writer = processingEnv.getFiler()
+                .createSourceFile(factory, type).openWriter()) {
+            writer.write(code.toString());
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Failed to generate factory " + factory + ": " + ex.getMessage(),
+                type
+            );
+        }
+    }
+
+    /**
+     * Adds the qualifier and the type to cast to for the specified parameter or
+     * member variable to the lists. If the type of the variable can't be
+     * referenced from generated code in the specified package, then
+     * {@code false} is returned.
+     *
+     * @param variable    the parameter or member variable
+     * @param pkg         the package of the generated code
+     * @param qualifiers  list of qualifiers to add to
+     * @param casts       list of types to add to
+     * @return            {@code true} if the variable is supported
+     */
+    private boolean describe(VariableElement variable,
+                             PackageElement pkg,
+                             List<String> qualifiers,
+                             List<String> casts) {
+
+        final TypeMirror type = variable.asType();
+        final String name, cast;
+
+        if (type.getKind().isPrimitive()) {
+            name = type.getKind().name().toLowerCase(Locale.ROOT);
+            cast = types().boxedClass((PrimitiveType) type)
+                .getQualifiedName().toString();
+        } else {
+            final TypeMirror erased = types().erasure(type);
+            if (erased.getKind() != TypeKind.DECLARED) {
+                return false;
+            }
+
+            final TypeElement element = (TypeElement) types().asElement(erased);
+            if (!isAccessible(element, pkg)) {
+                return false;
+            }
+
+            name = elements().getBinaryName(element).toString();
+            cast = erased.toString();
+        }
+
+        final Inject inject = variable.getAnnotation(Inject.class);
+
+        // A supplier of another type without an explicit qualifier is a lazy
+        // dependency on that type.
+        qualifiers.add(inject == null || inject.value().isEmpty()
+            ? lazyTarget(type).map(LazyDependency::key).orElse(name)
+            : inject.value()
+        );
+
+        casts.add(cast);
+        return true;
+    }
+
+    /**
+     * If the specified type is a {@link java.util.function.Supplier} with a
+     * declared type as its type argument, then the binary name of that type is
+     * returned. Otherwise, an empty {@code Optional} is returned.
+     *
+     * @param type  the type of a parameter or member variable
+     * @return      the name of the supplied type, or empty
+     */
+    private Optional<String> lazyTarget(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+
+        final DeclaredType declared = (DeclaredType) type;
+        final TypeElement element = (TypeElement) declared.asElement();
+        if (!element.getQualifiedName().contentEquals(LazyDependency.SUPPLIER)
+        ||  declared.getTypeArguments().size() != 1) {
+            return Optional.empty();
+        }
+
+        final TypeMirror argument = declared.getTypeArguments().get(0);
+        if (argument.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+
+        return Optional.of(elements().getBinaryName(
+            (TypeElement) types().asElement(argument)
+        ).toString());
+    }
+
+    /**
+     * Returns all the member variables annotated with {@link Inject} in the
+     * specified type and its superclasses, starting with the topmost
+     * superclass.
+     *
+     * @param type  the type
+     * @return      the injectable member variables
+     */
+    private List<VariableElement> injectableFields(TypeElement type) {
+        final LinkedList<VariableElement> fields = new LinkedList<>();
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            final List<VariableElement> declared =
+                ElementFilter.fieldsIn(t.getEnclosedElements()).stream()
+                    .filter(f -> f.getAnnotation(Inject.class) != null)
+                    .collect(toList());
+
+            fields.addAll(0, declared);
+        }
+        return fields;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        final TypeMirror parent = type.getSuperclass();
+        return parent.getKind() == TypeKind.DECLARED
+            ? (TypeElement) types().asElement(parent)
+            : null;
+    }
+
+    /**
+     * Returns {@code true} if the specified type can be referenced by code in
+     * the specified package.
+     *
+     * @param type  the type
+     * @param pkg   the package
+     * @return      {@code true} if accessible, else {@code false}
+     */
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        final Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(PRIVATE)
+        ||  (!modifiers.contains(PUBLIC)
+            && !elements().getPackageOf(type).equals(pkg))) {
+            return false;
+        }
+
+        switch (type.getNestingKind()) {
+            case TOP_LEVEL : return true;
+            case MEMBER    : return isAccessible(
+                (TypeElement) type.getEnclosingElement(), pkg
+            );
+            default : return false;
+        }
+    }
+
+    /**
+     * Writes the index of all the {@link Provider}-annotated classes found
+     * during this compilation, merged with the entries of any existing index
+     * in the output directory. An incremental compilation only processes the
+     * classes that changed, so entries from earlier compilations are kept as
+     * long as the class still exists and is still annotated with
+     * {@link Provider}.
+     */
+    private void writeProviderIndex() {
+        final Map<String, String> merged = new TreeMap<>();
+        readProviderIndex().forEach(name -> {
+            final TypeElement type = elements()
+                .getTypeElement(name.replace('$', '.'));
+
+            if (type != null) {
+                final Provider provider = type.getAnnotation(Provider.class);
+                if (provider != null) {
+                    merged.put(name, provider.value());
+                }
+            }
+        });
+
+        merged.putAll(providers);
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        try (final Writer writer = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_INDEX)
+                .openWriter()) {
+            for (final Map.Entry<String, String> provider : merged.entrySet()) {
+                writer.write(provider.getKey());
+                if (!provider.getValue().isEmpty()) {
+                    writer.write('\t');
+                    writer.write(provider.getValue());
+                }
+                writer.write('\n');
+            }
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Failed to write " + PROVIDER_INDEX + ": " + ex.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Reads the names of the classes listed in the existing index in the
+     * output directory, if any.
+     *
+     * @return  the class names in the existing index
+     */
+    private List<String> readProviderIndex() {
+        final List<String> names = new ArrayList<>();
+        try (final BufferedReader reader = new BufferedReader(
+                processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_INDEX)
+                    .openReader(true))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int tab = line.indexOf('\t');
+                final String name = (tab < 0 ? line : line.substring(0, tab)).trim();
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        } catch (final IOException ex) {
+            // There is no index from an earlier compilation.
+        }
+        return names;
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Compile-time support for the dependency injector. The
+ * {@link com.github.pyknic.stiletto.processor.InjectProcessor} generates a
+ * {@link com.github.pyknic.stiletto.processor.GeneratedFactory} for every type
+ * that it can instantiate without reflection, which the injector then uses
+ * instead of reflection.
+ * <p>
+ * The processor is registered as a service, so it runs automatically when this
+ * library is on the compile classpath.
+ */
+package com.github.pyknic.stiletto.processor;
@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("BuildMetrics")
+class BuildMetricsTest {
+
+    private static final class Fast {}
+
+    private static final class Slow {
+        Slow(Fast fast) {
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Dependent {
+        Dependent(Slow slow) {}
+    }
+
+    @Test
+    @DisplayName("Collect")
+    void collect() {
+        // The first instantiation in a JVM is slower, so warm up first to
+        // make sure that the slowest component is the one that sleeps.
+        Injector.builder().withType(Fast.class).build();
+
+        final BuildMetrics metrics = BuildMetrics.create();
+
+        Injector.builder()
+            .withListener(metrics)
+            .withType(Dependent.class)
+            .withType(Slow.class)
+            .withType(Fast.class)
+            .build();
+
+        assertEquals(3, metrics.getLayers(), "Layers");
+        assertTrue(metrics.getBuildNanos() >= metrics.getInstantiationNanos(), "Build includes instantiation");
+        assertTrue(metrics.getInstantiationNanos() >= 20_000_000, "Instantiation time");
+        assertTrue(metrics.getAnalysisNanos() > 0, "Analysis time");
+        assertEquals(0, metrics.getScanNanos(), "No scan");
+
+        final List<BuildMetrics.Component> components = metrics.getComponents();
+        assertEquals(3, components.size(), "Components");
+        assertEquals(Slow.class, components.get(0).getType(), "Slowest component first");
+        assertTrue(components.get(0).getInstantiationNanos() >= 20_000_000, "Slowest instantiation time");
+        assertTrue(metrics.report(1).contains(Slow.class.getName()), "Report slowest");
+        assertFalse(metrics.report(1).contains(Fast.class.getName()), "Report is limited");
+    }
+
+    @Test
+    @DisplayName("Lazy")
+    void lazy() {
+        final BuildMetrics metrics = BuildMetrics.create();
+
+        Injector.builder()
+            .withListener(metrics)
+            .withType(Slow.class)
+            .withType(Fast.class)
+            .lazy()
+            .build();
+
+        assertEquals(0, metrics.getInstantiationNanos(), "Nothing instantiated");
+        assertEquals(2, metrics.getComponents().size(), "Components analyzed");
+    }
+
+    @Test
+    @DisplayName("Parallel analysis")
+    void parallelAnalysis() {
+        final List<Thread> threads = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Injector.builder()
+                .withListener(new BuildListener() {
+                    @Override
+                    public void onAnalyze(String qualifier, Class<?> type, long nanos) {
+                        threads.add(Thread.currentThread());
+                    }
+                })
+                .withType(Dependent.class)
+                .withType(Slow.class)
+                .withType(Fast.class)
+                .parallel(executor)
+                .build();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3, threads.size(), "Types analyzed");
+        threads.forEach(t -> assertSame(Thread.currentThread(), t, "Calling thread"));
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import com.github.pyknic.stiletto.processor.GeneratedFactory;
+import com.github.pyknic.stiletto.processor.InjectProcessor;
+import com.github.pyknic.stiletto.testgenerated.GeneratedComp;
+import com.github.pyknic.stiletto.testgenerated.GeneratedLazy;
+import com.github.pyknic.stiletto.testgenerated.GeneratedPrimitive;
+import com.github.pyknic.stiletto.testgenerated.ReflectedComp;
+import com.github.pyknic.stiletto.testtype.CompA;
+import com.github.pyknic.stiletto.testtype.CompAImpl;
+import com.github.pyknic.stiletto.testtype.CompAImpl2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("InjectProcessor")
+class InjectProcessorTest {
+
+    @Test
+    @DisplayName("Generated factory")
+    void generatedFactory() throws Exception {
+        final GeneratedFactory<?> factory = (GeneratedFactory<?>) Class.forName(
+            GeneratedFactory.factoryName(GeneratedComp.class.getName())
+        ).getConstructor().newInstance();
+
+        assertEquals(GeneratedComp.class, factory.type());
+        assertEquals(Arrays.asList("a2", "a"), factory.dependencies());
+
+        final CompAImpl a   = new CompAImpl();
+        final CompAImpl2 a2 = new CompAImpl2();
+        final GeneratedComp comp = (GeneratedComp) factory.create(a2, a);
+
+        assertSame(a2, comp.constructed, "Constructor parameter");
+        assertSame(a, comp.getInjected(), "Injected field");
+    }
+
+    @Test
+    @DisplayName("Generated factory with primitives")
+    void generatedPrimitives() throws Exception {
+        final GeneratedFactory<?> factory = (GeneratedFactory<?>) Class.forName(
+            GeneratedFactory.factoryName(GeneratedPrimitive.class.getName())
+        ).getConstructor().newInstance();
+
+        assertEquals(Arrays.asList("long", "int"), factory.dependencies());
+
+        final GeneratedPrimitive prim = (GeneratedPrimitive) factory.create(7L, 42);
+        assertEquals(7L, prim.getLong(), "Primitive parameter");
+        assertEquals(42, prim.getInt(), "Primitive field");
+    }
+
+    @Test
+    @DisplayName("Generated factory with suppliers")
+    void generatedLazy() throws Exception {
+        final GeneratedFactory<?> factory = (GeneratedFactory<?>) Class.forName(
+            GeneratedFactory.factoryName(GeneratedLazy.class.getName())
+        ).getConstructor().newInstance();
+
+        assertEquals(Arrays.asList(
+            "java.util.function.Supplier<" + CompA.class.getName() + ">",
+            "java.util.function.Supplier<" + CompAImpl2.class.getName() + ">"
+        ), factory.dependencies());
+
+        final Injector inj = Injector.builder()
+            .withType(GeneratedLazy.class)
+            .withType(CompAImpl.class, "a")
+            .withType(CompAImpl2.class)
+            .build();
+
+        final GeneratedLazy lazy = inj.getOrThrow(GeneratedLazy.class);
+        assertSame(inj.getOrThrow(CompA.class), lazy.constructed.get(), "Constructor parameter");
+        assertSame(inj.getOrThrow(CompAImpl2.class), lazy.getInjected().get(), "Injected field");
+    }
+
+    @Test
+    @DisplayName("No factory for private members")
+    void noFactory() {
+        assertThrows(ClassNotFoundException.class, () -> {
+            Class.forName(GeneratedFactory.factoryName(ReflectedComp.class.getName()));
+        });
+    }
+
+    @Test
+    @DisplayName(".build()")
+    void build() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompAImpl2.class, "a2")
+            .withType(GeneratedComp.class)
+            .withType(ReflectedComp.class)
+            .build();
+
+        final GeneratedComp generated = inj.getOrThrow(GeneratedComp.class);
+        assertSame(inj.getOrThrow("a2"), generated.constructed, "Constructor parameter");
+        assertSame(inj.getOrThrow("a"), generated.getInjected(), "Injected field");
+
+        final ReflectedComp reflected = inj.getOrThrow(ReflectedComp.class);
+        assertSame(inj.getOrThrow("a"), reflected.getInjected(), "Injected field");
+    }
+
+    @Test
+    @DisplayName("No redundant casts or unclaimed annotations")
+    void noRedundantCasts() throws Exception {
+        final Path dir = Files.createTempDirectory("stiletto");
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir,
+            source(dir, "Base", "public class Base {\n" +
+                "    @com.github.pyknic.stiletto.Inject public String base;\n" +
+                "}"),
+            source(dir, "Sub", "@com.github.pyknic.stiletto.Inject\n" +
+                "public class Sub extends Base {\n" +
+                "    @com.github.pyknic.stiletto.Inject public String sub;\n" +
+                "}")
+        );
+
+        assertTrue(Files.exists(dir.resolve("classes")
+            .resolve(GeneratedFactory.factoryName("Sub") + ".class")),
+            "Factory generated");
+
+        assertEquals(new ArrayList<>(), diagnostics.stream()
+            .filter(d -> d.getKind() != Diagnostic.Kind.NOTE)
+            .map(d -> d.getMessage(Locale.ROOT))
+            .collect(toList()));
+    }
+
+    @Test
+    @DisplayName("Incremental provider index")
+    void incrementalIndex() throws Exception {
+        final Path dir = Files.createTempDirectory("stiletto");
+        compile(dir, source(dir, "First",
+            "@com.github.pyknic.stiletto.Provider(\"first\") public class First {}"
+        ));
+
+        compile(dir, source(dir, "Second",
+            "@com.github.pyknic.stiletto.Provider public class Second {}"
+        ));
+
+        assertEquals(Arrays.asList("First\tfirst", "Second"), Files.readAllLines(
+            dir.resolve("classes").resolve(InjectProcessor.PROVIDER_INDEX)
+        ));
+
+        compile(dir,
+            source(dir, "First", "public class First {}"),
+            source(dir, "Third",
+                "@com.github.pyknic.stiletto.Provider public class Third {}"
+            )
+        );
+
+        assertEquals(Arrays.asList("Second", "Third"), Files.readAllLines(
+            dir.resolve("classes").resolve(InjectProcessor.PROVIDER_INDEX)
+        ), "Entry of a class that is no longer a provider");
+    }
+
+    private static Path source(Path dir, String name, String code) throws Exception {
+        final Path file = dir.resolve(name + ".java");
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(
+            Path dir, Path... sources) throws Exception {
+
+        final Path classes   = Files.createDirectories(dir.resolve("classes"));
+        final Path generated = Files.createDirectories(dir.resolve("generated"));
+        final String classpath = Paths.get(Inject.class.getProtectionDomain()
+            .getCodeSource().getLocation().toURI()) + File.pathSeparator + classes;
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics =
+            new DiagnosticCollector<>();
+
+        try (final StandardJavaFileManager files =
+                 compiler.getStandardFileManager(null, null, null)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                null, files, diagnostics, Arrays.asList(
+                    "-Xlint:cast,processing", "-implicit:none",
+                    "-classpath", classpath,
+                    "-d", classes.toString(),
+                    "-s", generated.toString()
+                ), null, files.getJavaFileObjects(
+                    Arrays.stream(sources).map(Path::toFile).toArray(File[]::new)
+                )
+            );
+
+            task.setProcessors(singletonList(new InjectProcessor()));
+            assertTrue(task.call(), "Compilation failed: " +
+                diagnostics.getDiagnostics());
+        }
+
+        return diagnostics.getDiagnostics();
+    }
+}
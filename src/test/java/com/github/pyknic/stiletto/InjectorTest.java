@@ -19,6 +19,19 @@ package com.github.pyknic.stiletto;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -51,6 +64,118 @@ class InjectorTest {
         }
     }
 
+    private static final class CompD {
+        private final CompB constructed;
+        private @Inject("a") CompA injected;
+        private @Inject final CompB injectedFinal = null;
+
+        CompD(CompB constructed) {
+            this.constructed = constructed;
+        }
+    }
+
+    private static final class CompF {
+        private @Inject CompB injected;
+    }
+
+    private static final class Failing1 {
+        Failing1() { throw new IllegalStateException("1"); }
+    }
+
+    private static final class Failing2 {
+        Failing2() { throw new IllegalStateException("2"); }
+    }
+
+    private static final class Standalone {}
+
+    private static final class Heavy {}
+
+    private static final class LazyUser {
+        private final Supplier<Heavy> heavy;
+
+        LazyUser(Supplier<Heavy> heavy) {
+            this.heavy = heavy;
+        }
+    }
+
+    private static final class Rendezvous1 {
+        Rendezvous1() { meet(); }
+    }
+
+    private static final class Rendezvous2 {
+        Rendezvous2() { meet(); }
+    }
+
+    private static final class AfterRendezvous {
+        private final Rendezvous1 first;
+        private final Rendezvous2 second;
+
+        AfterRendezvous(Rendezvous1 first, Rendezvous2 second) {
+            this.first  = first;
+            this.second = second;
+        }
+    }
+
+    private static final class Cyclic1 {
+        private final Supplier<Cyclic2> other;
+
+        Cyclic1(Supplier<Cyclic2> other) {
+            this.other = other;
+        }
+    }
+
+    private static final class Cyclic2 {
+        private final Cyclic1 other;
+        private @Inject Supplier<Counted> counted;
+
+        Cyclic2(Cyclic1 other) {
+            this.other = other;
+        }
+    }
+
+    private static final class Clock implements Supplier<String> {
+        @Override
+        public String get() {
+            return "tick";
+        }
+    }
+
+    private static final class QualifiedClockUser {
+        private @Inject("clock") Supplier<String> clock;
+    }
+
+    private static final class ClockUser {
+        private final Supplier<String> clock;
+
+        ClockUser(Supplier<String> clock) {
+            this.clock = clock;
+        }
+    }
+
+    private static volatile CountDownLatch RENDEZVOUS;
+
+    // Only returns if both rendezvous types are instantiated concurrently.
+    private static void meet() {
+        RENDEZVOUS.countDown();
+        try {
+            if (!RENDEZVOUS.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Not instantiated concurrently.");
+            }
+        } catch (final InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class Counted {
+        private static final AtomicInteger CREATED = new AtomicInteger();
+        private final CompB wrapped;
+
+        Counted(CompB wrapped) {
+            this.wrapped = wrapped;
+            CREATED.incrementAndGet();
+        }
+    }
+
     @Test
     @DisplayName(".has(Class)")
     void has() {
@@ -106,6 +231,23 @@ class InjectorTest {
         assertTrue(inj.get(CompBImpl.class).isPresent(), "CompB class");
     }
 
+    @Test
+    @DisplayName(".getOrNull(Class)")
+    void getOrNull() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        assertNotNull(inj.getOrNull(CompA.class), "CompA interface");
+        assertNotNull(inj.getOrNull(CompB.class), "CompB interface");
+        assertNull(inj.getOrNull(CompC.class), "CompC interface");
+        assertNull(inj.getOrNull(String.class), "Unrelated class");
+
+        assertSame(inj.getOrThrow("a"), inj.getOrNull(CompAImpl.class), "CompA class");
+        assertSame(inj.getOrThrow(CompBImpl.class), inj.getOrNull(CompBImpl.class), "CompB class");
+    }
+
     @Test
     @DisplayName(".has(String)")
     void hasQualifier() {
@@ -175,4 +317,536 @@ class InjectorTest {
         assertTrue(inj.get("b").isPresent(), "'b' qualifier");
         assertFalse(inj.get("c").isPresent(), "'c' qualifier");
     }
+
+    @Test
+    @DisplayName(".create(Class)")
+    void create() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        final CompD first  = inj.create(CompD.class);
+        final CompD second = inj.create(CompD.class);
+
+        assertNotSame(first, second, "Create new instance every time");
+        assertSame(inj.getOrThrow(CompB.class), first.constructed, "Constructor parameter");
+        assertSame(inj.getOrThrow("a"), first.injected, "Injected field");
+        assertSame(inj.getOrThrow(CompB.class), first.injectedFinal, "Injected final field");
+    }
+
+    @Test
+    @DisplayName(".creator(Class)")
+    void creator() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        final Supplier<CompD> creator = inj.creator(CompD.class);
+        final CompD first  = creator.get();
+        final CompD second = creator.get();
+
+        assertNotSame(first, second, "Create new instance every time");
+        assertSame(first.constructed, second.constructed, "Constructor parameter");
+        assertSame(inj.getOrThrow("a"), second.injected, "Injected field");
+        assertSame(inj.getOrThrow(CompB.class), second.injectedFinal, "Injected final field");
+
+        assertThrows(InjectorException.class, () -> {
+            Injector.builder().build().creator(CompD.class);
+        });
+    }
+
+    @Test
+    @DisplayName(".createMany(Class, int)")
+    void createMany() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<List<CompD>> batches = Arrays.asList(
+                inj.createMany(CompD.class, 1000),
+                inj.createMany(CompD.class, 1000, pool),
+                Arrays.asList(inj.fill(new CompD[1000])),
+                Arrays.asList(inj.fill(new CompD[1000], pool)),
+                inj.generate(CompD.class).limit(1000).collect(toList())
+            );
+
+            for (final List<CompD> batch : batches) {
+                assertEquals(1000, batch.size(), "Size");
+                assertEquals(1000, batch.stream().distinct().count(), "New instance every time");
+                for (final CompD created : batch) {
+                    assertSame(inj.getOrThrow(CompB.class), created.constructed, "Constructor parameter");
+                    assertSame(inj.getOrThrow("a"), created.injected, "Injected field");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(0, inj.createMany(CompD.class, 0).size(), "Empty");
+        assertThrows(IllegalArgumentException.class, () -> inj.createMany(CompD.class, -1));
+        assertThrows(InjectorException.class, () ->
+            Injector.builder().build().createMany(CompD.class, 10)
+        );
+    }
+
+    @Test
+    @DisplayName(".creatorCacheStatistics()")
+    void creatorCacheStatistics() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        assertEquals(0, inj.creatorCacheStatistics().getLookups(), "No lookups");
+
+        inj.create(CompD.class);
+        inj.create(CompD.class);
+        inj.creator(CompD.class).get();
+
+        final CacheStatistics stats = inj.creatorCacheStatistics();
+        assertEquals(1, stats.getMisses(), "Selected once");
+        assertEquals(2, stats.getHits(), "Reused");
+        assertEquals(3,
+            InstrumentedInjector.wrap(inj).creatorCacheStatistics().getLookups(),
+            "Delegated by instrumented injector"
+        );
+    }
+
+    @Test
+    @DisplayName(".inject(Object)")
+    void inject() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        final CompD first  = inj.inject(new CompD(null));
+        final CompD second = inj.inject(new CompD(null));
+
+        assertSame(inj.getOrThrow("a"), first.injected, "Injected field");
+        assertSame(inj.getOrThrow(CompB.class), first.injectedFinal, "Injected final field");
+        assertSame(first.injected, second.injected, "Injected field (cached)");
+        assertSame(first.injectedFinal, second.injectedFinal, "Injected final field (cached)");
+
+        assertThrows(InjectorException.class, () -> {
+            Injector.builder().build().inject(new CompD(null));
+        });
+    }
+
+    @Test
+    @DisplayName(".injectAll(...)")
+    void injectAll() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .build();
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<Object[]> batches = Arrays.asList(
+                inj.injectAll(batch()),
+                inj.injectAll(batch(), pool),
+                inj.injectAll(Arrays.asList(batch())).toArray(),
+                inj.injectAll(new ArrayList<>(Arrays.asList(batch())), pool).toArray(),
+                InstrumentedInjector.wrap(inj).injectAll(batch()),
+                InstrumentedInjector.wrap(inj).injectAll(batch(), pool)
+            );
+
+            for (final Object[] batch : batches) {
+                for (final Object injected : batch) {
+                    if (injected instanceof CompD) {
+                        assertSame(inj.getOrThrow("a"), ((CompD) injected).injected, "Injected field");
+                        assertSame(inj.getOrThrow(CompB.class), ((CompD) injected).injectedFinal, "Injected final field");
+                    } else {
+                        assertSame(inj.getOrThrow(CompB.class), ((CompF) injected).injected, "Injected field");
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThrows(InjectorException.class, () -> {
+            Injector.builder().build().injectAll(batch());
+        });
+    }
+
+    private static Object[] batch() {
+        final Object[] batch = new Object[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i % 3 == 0 ? new CompF() : new CompD(null);
+        }
+        return batch;
+    }
+
+    @Test
+    @DisplayName(".parallel(Executor)")
+    void parallel() {
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompAImpl2.class, "a2")
+            .withType(CompBImpl.class, "b")
+            .parallel(ForkJoinPool.commonPool())
+            .build();
+
+        assertEquals(CompBImpl.class, inj.getOrThrow(CompA.class).getClass(), "CompA is a CompBImpl (most recent added)");
+        assertEquals(CompAImpl.class, inj.getOrThrow("a").getClass(), "'a' is a CompAImpl");
+        assertEquals(CompAImpl2.class, inj.getOrThrow("a2").getClass(), "'a2' is a CompAImpl2");
+        assertSame(inj.getOrThrow("a"), inj.getOrThrow(CompBImpl.class).wrapped, "Test wrapped instance");
+        assertSame(inj.getOrThrow("a2"), inj.getOrThrow(CompBImpl.class).wrapped2, "Test wrapped2 instance (most recent added)");
+
+        final InjectorException ex = assertThrows(InjectorException.class, () -> {
+            Injector.builder()
+                .withType(CompAImpl.class)
+                .withType(Failing1.class)
+                .withType(Failing2.class)
+                .parallel(ForkJoinPool.commonPool())
+                .build();
+        });
+
+        assertEquals("1", ex.getCause().getMessage(), "First failure is thrown");
+        assertEquals(1, ex.getSuppressed().length, "Second failure is suppressed");
+    }
+
+    @Test
+    @DisplayName(".withType(...) (concurrent registration)")
+    void concurrentRegistration() throws Exception {
+        final InjectorBuilder builder = Injector.builder()
+            .parallel(ForkJoinPool.commonPool());
+
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int thread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    builder.withType(CompAImpl.class, "a" + thread + "-" + j);
+                }
+            });
+        }
+
+        for (final Thread thread : threads) thread.start();
+        for (final Thread thread : threads) thread.join();
+
+        final Injector inj = builder
+            .withType(CompBImpl.class, "b")
+            .withType(CompAImpl2.class, "a")
+            .build();
+
+        for (int i = 0; i < threads.length; i++) {
+            for (int j = 0; j < 100; j++) {
+                assertTrue(inj.has("a" + i + "-" + j), "Has a" + i + "-" + j);
+            }
+        }
+
+        assertEquals(CompAImpl2.class, inj.getOrThrow(CompBImpl.class).wrapped.getClass(), "Qualifier 'a' was replaced");
+        assertEquals(CompBImpl.class, inj.getOrThrow(CompA.class).getClass(), "CompA is a CompBImpl (most recent added)");
+    }
+
+    @Test
+    @DisplayName(".lazy()")
+    void lazy() {
+        Counted.CREATED.set(0);
+
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompAImpl2.class, "a2")
+            .withType(CompBImpl.class, "b")
+            .withType(Counted.class)
+            .withType(Failing1.class)
+            .lazy()
+            .build();
+
+        assertEquals(0, Counted.CREATED.get(), "Nothing created by build()");
+        assertTrue(inj.has(Counted.class), "Has Counted without creating it");
+        assertTrue(inj.has("b"), "Has 'b' without creating it");
+        assertEquals(0, Counted.CREATED.get(), "Nothing created by has()");
+
+        final Counted counted = inj.getOrThrow(Counted.class);
+        assertEquals(1, Counted.CREATED.get(), "Created on first access");
+        assertSame(counted, inj.getOrThrow(Counted.class), "Same instance on second access");
+        assertSame(inj.getOrThrow("b"), counted.wrapped, "Dependency created and shared");
+        assertSame(inj.getOrThrow("a"), inj.getOrThrow(CompBImpl.class).wrapped, "Test wrapped instance");
+        assertSame(inj.getOrThrow("a2"), inj.getOrThrow(CompBImpl.class).wrapped2, "Test wrapped2 instance (most recent added)");
+        assertEquals(CompBImpl.class, inj.getOrThrow(CompA.class).getClass(), "CompA is a CompBImpl (most recent added)");
+
+        assertThrows(InjectorException.class, () -> inj.getOrThrow(Failing1.class));
+        assertThrows(InjectorException.class, () ->
+            Injector.builder().withType(CompBImpl.class).lazy().build()
+        );
+    }
+
+    @Test
+    @DisplayName(".lazy() (concurrent access)")
+    void lazyConcurrent() throws Exception {
+        Counted.CREATED.set(0);
+
+        final Injector inj = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class, "b")
+            .withType(Counted.class)
+            .lazy()
+            .build();
+
+        final Thread[] threads = new Thread[8];
+        final Counted[] results = new Counted[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> results[index] = inj.getOrThrow(Counted.class));
+        }
+
+        for (final Thread thread : threads) thread.start();
+        for (final Thread thread : threads) thread.join();
+
+        assertEquals(1, Counted.CREATED.get(), "Only created once");
+        for (final Counted result : results) {
+            assertSame(results[0], result, "Same instance in every thread");
+        }
+    }
+
+    @Test
+    @DisplayName(".child()")
+    void child() {
+        Counted.CREATED.set(0);
+
+        final Injector parent = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class, "b")
+            .withType(Counted.class)
+            .build();
+
+        final Injector child = parent.child()
+            .withType(CompAImpl2.class, "a")
+            .withType(CompD.class)
+            .build();
+
+        assertEquals(CompAImpl2.class, child.getOrThrow("a").getClass(), "Overridden in child");
+        assertEquals(CompAImpl.class, parent.getOrThrow("a").getClass(), "Not overridden in parent");
+        assertSame(parent.getOrThrow(CompB.class), child.getOrThrow(CompB.class), "Shared with parent");
+        assertSame(parent.getOrThrow(Counted.class), child.getOrThrow(Counted.class), "Shared with parent");
+        assertEquals(1, Counted.CREATED.get(), "Parent instances are not recreated");
+
+        final CompD d = child.getOrThrow(CompD.class);
+        assertSame(parent.getOrThrow(CompB.class), d.constructed, "Parent dependency");
+        assertEquals(CompAImpl2.class, d.injected.getClass(), "Overridden dependency");
+        assertFalse(parent.has(CompD.class), "Child types are not added to parent");
+
+        final Injector grandchild = child.child().build();
+        assertSame(child.getOrThrow("a"), grandchild.getOrThrow("a"), "Shared with grandparent");
+        assertEquals(CompAImpl2.class, grandchild.create(CompD.class).injected.getClass(), "Created with overridden dependency");
+
+        assertThrows(InjectorException.class, () ->
+            Injector.builder().build().child().withType(CompD.class).build()
+        );
+    }
+
+    @Test
+    @DisplayName(".derive()")
+    void derive() {
+        Counted.CREATED.set(0);
+
+        final Injector previous = Injector.builder()
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class, "b")
+            .withType(Counted.class)
+            .withType(Standalone.class)
+            .build();
+
+        final Injector derived = previous.derive()
+            .withType(CompAImpl2.class, "a")
+            .build();
+
+        assertEquals(CompAImpl2.class, derived.getOrThrow("a").getClass(), "Replaced");
+        assertEquals(CompAImpl.class, previous.getOrThrow("a").getClass(), "Previous unchanged");
+        assertSame(previous.getOrThrow(Standalone.class), derived.getOrThrow(Standalone.class), "Unaffected is reused");
+
+        final CompBImpl b = derived.getOrThrow("b");
+        assertNotSame(previous.getOrThrow("b"), b, "Dependent is created again");
+        assertSame(derived.getOrThrow("a"), b.wrapped, "Dependent uses replacement");
+        assertSame(b, derived.getOrThrow(Counted.class).wrapped, "Transitive dependent is created again");
+        assertEquals(2, Counted.CREATED.get(), "Created once per affected build");
+
+        final Injector unchanged = derived.derive()
+            .withType(CompD.class)
+            .build();
+
+        assertSame(b, unchanged.getOrThrow("b"), "Nothing affected");
+        assertSame(derived.getOrThrow(Counted.class), unchanged.getOrThrow(Counted.class), "Nothing affected");
+        assertEquals(2, Counted.CREATED.get(), "Not created again");
+        assertSame(b, unchanged.getOrThrow(CompD.class).constructed, "Added type uses reused instance");
+    }
+
+    @Test
+    @DisplayName(".derive() (Supplier dependencies)")
+    void deriveLazy() {
+        final Injector previous = Injector.builder()
+            .withType(LazyUser.class)
+            .withType(Heavy.class)
+            .withType(Standalone.class, "cfg")
+            .build();
+
+        final LazyUser user = previous.getOrThrow(LazyUser.class);
+
+        final Injector unrelated = previous.derive()
+            .withType(Standalone.class, "cfg")
+            .build();
+
+        assertNotSame(previous.getOrThrow("cfg"), unrelated.getOrThrow("cfg"), "Replaced");
+        assertSame(user, unrelated.getOrThrow(LazyUser.class), "Lazy dependent is reused");
+        assertSame(unrelated.getOrThrow(Heavy.class), user.heavy.get(), "Same supplied instance");
+
+        final Injector replaced = previous.derive()
+            .withType(Heavy.class)
+            .build();
+
+        final LazyUser recreated = replaced.getOrThrow(LazyUser.class);
+        assertNotSame(previous.getOrThrow(Heavy.class), replaced.getOrThrow(Heavy.class), "Replaced");
+        assertNotSame(user, recreated, "Lazy dependent is created again");
+        assertSame(replaced.getOrThrow(Heavy.class), recreated.heavy.get(), "Supplies replacement");
+        assertSame(previous.getOrThrow(Heavy.class), user.heavy.get(), "Previous unchanged");
+    }
+
+    @Test
+    @DisplayName(".buildAsync(Executor)")
+    void buildAsync() throws Exception {
+        RENDEZVOUS = new CountDownLatch(2);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Injector inj = Injector.builder()
+                .withType(Rendezvous1.class)
+                .withType(Rendezvous2.class)
+                .withType(AfterRendezvous.class)
+                .withType(CompAImpl.class, "a")
+                .withType(CompBImpl.class)
+                .buildAsync(executor)
+                .get(30, TimeUnit.SECONDS);
+
+            final AfterRendezvous after = inj.getOrThrow(AfterRendezvous.class);
+            assertSame(inj.getOrThrow(Rendezvous1.class), after.first, "First dependency");
+            assertSame(inj.getOrThrow(Rendezvous2.class), after.second, "Second dependency");
+            assertSame(inj.getOrThrow("a"), ((CompBImpl) inj.getOrThrow(CompB.class)).wrapped, "Qualified dependency");
+
+            final ExecutionException ex = assertThrows(ExecutionException.class, () ->
+                Injector.builder()
+                    .withType(Failing1.class)
+                    .withType(Failing2.class)
+                    .buildAsync(executor)
+                    .get(30, TimeUnit.SECONDS)
+            );
+
+            assertTrue(ex.getCause() instanceof InjectorException, "Wrapped in InjectorException");
+            assertEquals(1, ex.getCause().getSuppressed().length, "Other failure suppressed");
+
+            final ExecutionException unresolved = assertThrows(ExecutionException.class, () ->
+                Injector.builder()
+                    .withType(CompBImpl.class)
+                    .buildAsync(executor)
+                    .get(30, TimeUnit.SECONDS)
+            );
+
+            assertTrue(unresolved.getCause() instanceof InjectorException, "Unresolved");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName(".withType(...) (Supplier dependencies)")
+    void supplierDependencies() {
+        Counted.CREATED.set(0);
+
+        final Injector inj = Injector.builder()
+            .withType(Cyclic2.class)
+            .withType(Cyclic1.class)
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .withType(Counted.class)
+            .lazy()
+            .build();
+
+        final Cyclic2 second = inj.getOrThrow(Cyclic2.class);
+        assertSame(second, second.other.other.get(), "Cycle through supplier");
+        assertEquals(0, Counted.CREATED.get(), "Not created until supplied");
+        assertSame(inj.getOrThrow(Counted.class), second.counted.get(), "Supplied instance");
+        assertEquals(1, Counted.CREATED.get(), "Created once");
+
+        assertThrows(InjectorException.class, () ->
+            Injector.builder().withType(Cyclic1.class).build()
+        );
+    }
+
+    @Test
+    @DisplayName(".withType(...) (Supplier instances)")
+    void supplierInstances() throws Exception {
+        final Injector qualified = Injector.builder()
+            .withType(Clock.class, "clock")
+            .withType(QualifiedClockUser.class)
+            .build();
+
+        assertEquals("tick",
+            qualified.getOrThrow(QualifiedClockUser.class).clock.get(),
+            "Qualified supplier is not lazy"
+        );
+
+        final Injector unqualified = Injector.builder()
+            .withType(ClockUser.class)
+            .withType(Clock.class, "clock")
+            .build();
+
+        assertSame(unqualified.getOrThrow("clock"),
+            unqualified.getOrThrow(ClockUser.class).clock,
+            "Supplier of String is injected"
+        );
+
+        final Injector async = Injector.builder()
+            .withType(ClockUser.class)
+            .withType(Clock.class, "clock")
+            .buildAsync(ForkJoinPool.commonPool())
+            .get(10, TimeUnit.SECONDS);
+
+        assertSame(async.getOrThrow("clock"),
+            async.getOrThrow(ClockUser.class).clock,
+            "Supplier of String is injected (async)"
+        );
+
+        final Injector child = unqualified.child()
+            .withType(ClockUser.class, "child")
+            .build();
+
+        assertSame(unqualified.getOrThrow("clock"),
+            child.<ClockUser>getOrThrow("child").clock,
+            "Supplier of String in parent is injected"
+        );
+    }
+
+    @Test
+    @DisplayName(".withType(...) (unrelated Supplier instances)")
+    void unrelatedSupplierInstances() {
+        Counted.CREATED.set(0);
+
+        final Injector inj = Injector.builder()
+            .withType(Clock.class)
+            .withType(LazyUser.class)
+            .withType(Heavy.class)
+            .withType(Cyclic1.class)
+            .withType(Cyclic2.class)
+            .withType(CompAImpl.class, "a")
+            .withType(CompBImpl.class)
+            .withType(Counted.class)
+            .build();
+
+        assertSame(inj.getOrThrow(Heavy.class),
+            inj.getOrThrow(LazyUser.class).heavy.get(),
+            "Supplier of Heavy is not replaced by the Clock"
+        );
+
+        final Cyclic2 second = inj.getOrThrow(Cyclic2.class);
+        assertSame(second, second.other.other.get(), "Cycle through supplier");
+        assertSame(inj.getOrThrow(Counted.class), second.counted.get(), "Supplied instance");
+    }
 }
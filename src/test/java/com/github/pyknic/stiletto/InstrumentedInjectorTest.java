@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import com.github.pyknic.stiletto.InjectorStatistics.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("InstrumentedInjector")
+class InstrumentedInjectorTest {
+
+    private static final class Service {}
+
+    private static final class Client {
+        private @Inject Service service;
+    }
+
+    @Test
+    @DisplayName("Statistics")
+    void statistics() {
+        final InstrumentedInjector inj = InstrumentedInjector.wrap(
+            Injector.builder().withType(Service.class).build()
+        );
+
+        assertSame(inj.getOrThrow(Service.class), inj.getOrNull(Service.class));
+        assertTrue(inj.get(Service.class).isPresent());
+        assertTrue(inj.get(Service.class.getName()).isPresent());
+        assertFalse(inj.get(Client.class).isPresent());
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(inj.create(Client.class).service);
+        }
+
+        final Supplier<Client> creator = inj.creator(Client.class);
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(creator.get().service);
+        }
+
+        final Client client = new Client();
+        assertSame(client, inj.inject(client));
+        assertNotNull(client.service);
+
+        final InjectorStatistics stats = inj.statistics();
+        assertEquals(4, count(stats, Service.class, Operation.GET), "Get by type and qualifier");
+        assertEquals(1, count(stats, Client.class, Operation.GET), "Get missing type");
+        assertEquals(3, count(stats, Client.class, Operation.CREATE), "Create");
+        assertEquals(5, count(stats, Client.class, Operation.CREATOR), "Creator");
+        assertEquals(1, count(stats, Client.class, Operation.INJECT), "Inject");
+        assertEquals(Operation.CREATOR, stats.getTimings().get(0).getOperation(), "Most frequent first");
+        assertTrue(stats.toString().contains(Client.class.getName()), "Report");
+
+        inj.reset();
+        assertTrue(inj.statistics().getTimings().isEmpty(), "Reset");
+    }
+
+    @Test
+    @DisplayName("Statistics of has, misses and batches")
+    void hasMissesAndBatches() {
+        final InstrumentedInjector inj = InstrumentedInjector.wrap(
+            Injector.builder().withType(Service.class).build()
+        );
+
+        assertTrue(inj.has(Service.class));
+        assertTrue(inj.has(Service.class.getName()));
+        assertFalse(inj.get("missing").isPresent());
+        assertThrows(InjectorException.class, () -> inj.getOrThrow("missing"));
+
+        assertEquals(3, inj.createMany(Client.class, 3).size());
+        assertNotNull(inj.fill(new Client[4])[3].service);
+        assertEquals(2, inj.generate(Client.class).limit(2).count());
+
+        final InjectorStatistics stats = inj.statistics();
+        assertEquals(1, count(stats, Service.class, Operation.HAS), "Has by type");
+        assertEquals(1, count(stats, Object.class, Operation.HAS), "Has by qualifier");
+        assertEquals(2, count(stats, Object.class, Operation.GET), "Missing qualifiers");
+        assertEquals(4, count(stats, Client.class, Operation.BATCH), "Batches and generated elements");
+        assertEquals(0, count(stats, Client.class, Operation.CREATOR), "Batches are not counted per instance");
+    }
+
+    private static long count(InjectorStatistics stats, Class<?> type, Operation operation) {
+        return stats.get(type, operation)
+            .map(InjectorStatistics.Timing::getCount)
+            .orElse(0L);
+    }
+}
@@ -16,15 +16,21 @@
  */
 package com.github.pyknic.stiletto;
 
+import com.github.pyknic.stiletto.processor.InjectProcessor;
 import com.github.pyknic.stiletto.testprovider.NotProvided;
 import com.github.pyknic.stiletto.testprovider.Providable;
 import com.github.pyknic.stiletto.testprovider.Provided;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -79,4 +85,17 @@ public final class ProviderTest {
             .noneMatch(NotProvided.class::equals)
         );
     }
+
+    @Test
+    void testIndex() throws Exception {
+        final URL index = getClass().getClassLoader()
+            .getResource(InjectProcessor.PROVIDER_INDEX);
+
+        assertNotNull(index, "Index generated by the annotation processor");
+
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            assertTrue(reader.lines().anyMatch(Provided.class.getName()::equals));
+        }
+    }
 }
@@ -0,0 +1,271 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("Scope")
+class ScopeTest {
+
+    private static final class Config {}
+
+    private static final class Handler {
+        private final Config config;
+        private int requests;
+
+        Handler(Config config) {
+            this.config = config;
+        }
+    }
+
+    private static final class Controller {
+        private final Handler handler;
+
+        Controller(Handler handler) {
+            this.handler = handler;
+        }
+    }
+
+    private static final class Pipeline {
+        private final Handler first;
+        private final Controller second;
+
+        Pipeline(Handler first, Controller second) {
+            this.first  = first;
+            this.second = second;
+        }
+    }
+
+    private static final class Injected {
+        private @Inject Config config;
+    }
+
+    @Scoped(Scoped.Kind.PROTOTYPE)
+    private static final class AnnotatedPrototype {}
+
+    @Scoped(Scoped.Kind.THREAD)
+    private static final class AnnotatedThread {}
+
+    @Test
+    @DisplayName("Singleton")
+    void singleton() {
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, Scope.singleton())
+            .withType(AnnotatedPrototype.class, Scope.singleton())
+            .build();
+
+        assertSame(inj.getOrThrow(Handler.class), inj.getOrThrow(Handler.class));
+        assertSame(inj.getOrThrow(AnnotatedPrototype.class), inj.getOrThrow(AnnotatedPrototype.class), "Annotation is overridden");
+    }
+
+    @Test
+    @DisplayName("Prototype")
+    void prototype() {
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, Scope.prototype())
+            .withType(Controller.class)
+            .withType(Pipeline.class, Scope.prototype())
+            .withType(AnnotatedPrototype.class)
+            .build();
+
+        final Handler first  = inj.getOrThrow(Handler.class);
+        final Handler second = inj.getOrThrow(Handler.class);
+        assertNotSame(first, second, "New instance every time");
+        assertSame(first.config, second.config, "Singleton dependency is shared");
+        assertTrue(inj.has(Handler.class), "Has prototype");
+
+        final Controller controller = inj.getOrThrow(Controller.class);
+        assertSame(controller, inj.getOrThrow(Controller.class), "Singleton depending on prototype");
+        assertNotNull(controller.handler, "Prototype injected into singleton");
+
+        final Pipeline pipeline = inj.getOrThrow(Pipeline.class);
+        assertNotSame(pipeline.first, inj.getOrThrow(Pipeline.class).first, "Prototype depending on prototype");
+        assertSame(controller, pipeline.second, "Prototype depending on singleton");
+
+        assertNotSame(inj.getOrThrow(AnnotatedPrototype.class), inj.getOrThrow(AnnotatedPrototype.class), "Declared using annotation");
+
+        assertEquals(2, inj.stream().distinct().count(), "Only singletons are streamed");
+        assertNotSame(inj.create(Pipeline.class).first, inj.create(Pipeline.class).first, "Create with prototype dependency");
+    }
+
+    @Test
+    @DisplayName("Thread")
+    void thread() throws Exception {
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, Scope.thread())
+            .withType(AnnotatedThread.class)
+            .build();
+
+        final Handler handler = inj.getOrThrow(Handler.class);
+        assertSame(handler, inj.getOrThrow(Handler.class), "Same instance in same thread");
+        assertSame(inj.getOrThrow(AnnotatedThread.class), inj.getOrThrow(AnnotatedThread.class), "Declared using annotation");
+
+        final AtomicReference<Handler> other = new AtomicReference<>();
+        final Thread thread = new Thread(() -> other.set(inj.getOrThrow(Handler.class)));
+        thread.start();
+        thread.join();
+
+        assertNotNull(other.get(), "Instance in other thread");
+        assertNotSame(handler, other.get(), "New instance in other thread");
+    }
+
+    @Test
+    @DisplayName("Keyed")
+    void keyed() {
+        final AtomicReference<String> request = new AtomicReference<>();
+        final KeyedScope scope = Scope.keyed(request::get, 2);
+
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, scope)
+            .withType(Pipeline.class, scope)
+            .withType(Controller.class, Scope.prototype())
+            .build();
+
+        assertThrows(InjectorException.class, () -> inj.getOrThrow(Handler.class));
+
+        request.set("a");
+        final Pipeline a = inj.getOrThrow(Pipeline.class);
+        assertSame(a, inj.getOrThrow(Pipeline.class), "Same instance for same key");
+        assertSame(a.first, inj.getOrThrow(Handler.class), "Same dependency for same key");
+        assertSame(a.first, a.second.handler, "Same transitive dependency for same key");
+
+        request.set("b");
+        final Pipeline b = inj.getOrThrow(Pipeline.class);
+        assertNotSame(a, b, "New instance for new key");
+
+        request.set("a");
+        assertSame(a, inj.getOrThrow(Pipeline.class), "Instances retained for key");
+        scope.close("a");
+        assertNotSame(a, inj.getOrThrow(Pipeline.class), "Instances discarded when closed");
+
+        final Pipeline a2 = inj.getOrThrow(Pipeline.class);
+        request.set("b");
+        inj.getOrThrow(Pipeline.class);
+        request.set("c");
+        inj.getOrThrow(Pipeline.class);
+        request.set("a");
+        assertNotSame(a2, inj.getOrThrow(Pipeline.class), "Least recently used key evicted");
+    }
+
+    @Test
+    @DisplayName("Pooled")
+    void pooled() {
+        final PooledScope<Handler> scope = Scope.pooled(1, h -> h.requests = 0);
+
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, scope)
+            .build();
+
+        final Handler first = inj.getOrThrow(Handler.class);
+        first.requests = 5;
+        assertNotSame(first, inj.getOrThrow(Handler.class), "New instance if pool is empty");
+
+        scope.release(first);
+        assertEquals(0, first.requests, "Reset when released");
+
+        assertSame(first, inj.getOrThrow(Handler.class), "Released instance is reused");
+        assertNotSame(first, inj.getOrThrow(Handler.class), "Released instance is only reused once");
+
+        final Handler second = inj.getOrThrow(Handler.class);
+        final Handler third  = inj.getOrThrow(Handler.class);
+        scope.release(second);
+        scope.release(third);
+        assertSame(second, inj.getOrThrow(Handler.class), "Pool is bounded");
+        assertNotSame(third, inj.getOrThrow(Handler.class), "Pool is bounded");
+    }
+
+    @Test
+    @DisplayName("Lazy")
+    void lazy() {
+        final Injector inj = Injector.builder()
+            .withType(Config.class)
+            .withType(Handler.class, Scope.prototype())
+            .withType(Controller.class)
+            .lazy()
+            .build();
+
+        final Controller controller = inj.getOrThrow(Controller.class);
+        assertSame(controller, inj.getOrThrow(Controller.class), "Lazy singleton");
+        assertNotSame(controller.handler, inj.getOrThrow(Handler.class), "Prototype");
+        assertSame(controller.handler.config, inj.getOrThrow(Handler.class).config, "Lazy singleton dependency");
+        assertEquals(2, inj.stream().collect(toList()).stream().distinct().count(), "Only singletons are streamed");
+    }
+
+    @Test
+    @DisplayName("Injectors are collected (inject)")
+    void collectedInject() {
+        assertCollected(() -> {
+            final Injector inj = Injector.builder()
+                .withType(Config.class, Scope.prototype())
+                .build();
+
+            assertNotNull(inj.inject(new Injected()).config);
+            return new WeakReference<>(inj);
+        });
+    }
+
+    @Test
+    @DisplayName("Injectors are collected (create)")
+    void collectedCreate() {
+        assertCollected(() -> {
+            final Injector inj = Injector.builder()
+                .withType(Config.class, Scope.prototype())
+                .build();
+
+            assertNotNull(inj.create(Handler.class).config);
+            return new WeakReference<>(inj);
+        });
+    }
+
+    /**
+     * Asserts that the injector referenced by the specified supplier can be
+     * garbage collected once the supplier has returned.
+     *
+     * @param injector  supplier that builds and uses an injector
+     */
+    private static void assertCollected(Supplier<WeakReference<Injector>> injector) {
+        final WeakReference<Injector> ref = injector.get();
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        assertNull(ref.get(), "Injector is collected");
+    }
+}
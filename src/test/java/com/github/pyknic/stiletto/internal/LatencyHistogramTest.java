@@ -0,0 +1,75 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.InjectorStatistics.Operation;
+import com.github.pyknic.stiletto.InjectorStatistics.Timing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("LatencyHistogram")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Percentiles")
+    void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertTrue(histogram.isEmpty(), "Empty");
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        final Timing timing = histogram.toTiming(String.class, Operation.GET);
+        assertEquals(1000, timing.getCount(), "Count");
+        assertEquals(1_000_000, timing.getMaxNanos(), "Max");
+        assertEquals(500_500.0, timing.getMeanNanos(), 0.001, "Mean");
+
+        assertWithin(500_000, timing.getPercentileNanos(0.5), "p50");
+        assertWithin(990_000, timing.getPercentileNanos(0.99), "p99");
+        assertEquals(1_000_000, timing.getPercentileNanos(1.0), "p100");
+    }
+
+    @Test
+    @DisplayName("Extremes")
+    void extremes() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+        histogram.record(15);
+        histogram.record(16);
+        histogram.record(Long.MAX_VALUE);
+
+        final Timing timing = histogram.toTiming(String.class, Operation.GET);
+        assertEquals(5, timing.getCount(), "Count");
+        assertEquals(0, timing.getPercentileNanos(0.4), "Negative is recorded as zero");
+        assertEquals(15, timing.getPercentileNanos(0.6), "Linear bucket");
+        assertEquals(Long.MAX_VALUE, timing.getPercentileNanos(1.0), "Largest bucket");
+    }
+
+    private static void assertWithin(long expected, long actual, String message) {
+        assertTrue(actual >= expected && actual <= expected * 1.125,
+            message + ": expected about " + expected + " but was " + actual
+        );
+    }
+}
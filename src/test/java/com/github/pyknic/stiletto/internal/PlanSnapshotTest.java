@@ -0,0 +1,182 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.Injector;
+import com.github.pyknic.stiletto.internal.graph.Node;
+import com.github.pyknic.stiletto.internal.graph.NodeImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.github.pyknic.stiletto.internal.graph.DependencyResolver.resolve;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("PlanSnapshot")
+class PlanSnapshotTest {
+
+    private static final class Leaf {}
+
+    private static final class Branch {
+        private final Leaf leaf;
+        private @Inject("leaf") Leaf field;
+
+        Branch() { this(null); }
+
+        @Inject
+        Branch(@Inject("leaf") Leaf leaf) {
+            this.leaf = leaf;
+        }
+    }
+
+    @Test
+    @DisplayName("Read written snapshot")
+    void readWritten() throws IOException {
+        final Map<String, Class<?>> types = types("leaf", "branch");
+        final List<List<Node<?>>> layers = resolveTypes(types);
+
+        final Path file = Files.createTempFile("stiletto", ".snapshot");
+        try {
+            PlanSnapshot.write(file, types, layers);
+
+            final Optional<List<List<Node<?>>>> read = PlanSnapshot.read(file, types);
+            assertTrue(read.isPresent(), "Snapshot is read");
+            assertEquals(layers, read.get(), "Same layers");
+
+            final NodeImpl<?> branch = (NodeImpl<?>) read.get().get(1).get(0);
+            assertEquals(1, branch.getConstructor().getParameterCount(), "Selected constructor");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Ignore mismatching snapshot")
+    void mismatch() throws IOException {
+        final Map<String, Class<?>> types = types("leaf", "branch");
+
+        final Path file = Files.createTempFile("stiletto", ".snapshot");
+        try {
+            PlanSnapshot.write(file, types, resolveTypes(types));
+
+            assertFalse(PlanSnapshot.read(file, types("leaf", "other")).isPresent(), "Other qualifier");
+
+            final Map<String, Class<?>> extra = types("leaf", "branch");
+            extra.put("extra", Leaf.class);
+            assertFalse(PlanSnapshot.read(file, extra).isPresent(), "Other types");
+
+            Files.write(file, new byte[] {1, 2, 3});
+            assertFalse(PlanSnapshot.read(file, types).isPresent(), "Corrupt file");
+
+            Files.delete(file);
+            assertFalse(PlanSnapshot.read(file, types).isPresent(), "Missing file");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Build with snapshot")
+    void build() throws IOException {
+        final Path file = Files.createTempFile("stiletto", ".snapshot");
+        Files.delete(file);
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                final Injector inj = Injector.builder()
+                    .withType(Leaf.class, "leaf")
+                    .withType(Branch.class, "branch")
+                    .withSnapshot(file)
+                    .build();
+
+                assertTrue(Files.exists(file), "Snapshot written");
+                assertSame(inj.getOrThrow("leaf"), inj.getOrThrow(Branch.class).leaf, "Constructor injection");
+                assertSame(inj.getOrThrow("leaf"), inj.getOrThrow(Branch.class).field, "Field injection");
+                assertNotNull(inj.create(Branch.class).leaf, "Create using snapshotted node");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Build with unwritable snapshot")
+    void unwritable() throws IOException {
+        final Path blocker = Files.createTempFile("stiletto", ".blocker");
+        try {
+            // The snapshot can't be written, since its directory is a file.
+            final Injector inj = Injector.builder()
+                .withType(Leaf.class, "leaf")
+                .withType(Branch.class, "branch")
+                .withSnapshot(blocker.resolve("plan.snapshot"))
+                .build();
+
+            assertSame(inj.getOrThrow("leaf"), inj.getOrThrow(Branch.class).leaf, "Built anyway");
+        } finally {
+            Files.deleteIfExists(blocker);
+        }
+    }
+
+    @Test
+    @DisplayName("Ignore snapshot in child builder")
+    void child() throws IOException {
+        final Path file = Files.createTempFile("stiletto", ".snapshot");
+        Files.delete(file);
+
+        try {
+            final Injector parent = Injector.builder()
+                .withType(Leaf.class, "leaf")
+                .build();
+
+            final Injector child = parent.child()
+                .withType(Branch.class, "branch")
+                .withSnapshot(file)
+                .build();
+
+            assertFalse(Files.exists(file), "Snapshot not written");
+            assertSame(parent.getOrThrow("leaf"), child.getOrThrow(Branch.class).leaf, "Resolved from parent");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Map<String, Class<?>> types(String leaf, String branch) {
+        final Map<String, Class<?>> types = new LinkedHashMap<>();
+        types.put(branch, Branch.class);
+        types.put(leaf, Leaf.class);
+        return types;
+    }
+
+    private static List<List<Node<?>>> resolveTypes(Map<String, Class<?>> types) {
+        final Map<String, Set<Node<?>>> nodes = new LinkedHashMap<>();
+        types.forEach((q, c) -> nodes.put(q, InjectorBuilderUtil.findNodes(c, q)));
+        return resolve(nodes);
+    }
+}
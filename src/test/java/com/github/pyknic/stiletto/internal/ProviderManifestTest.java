@@ -0,0 +1,154 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("ProviderManifest")
+class ProviderManifestTest {
+
+    @Test
+    @DisplayName("Read declared packages")
+    void declaredPackages() throws Exception {
+        final Path first  = jar("com.example.a, com.example.b");
+        final Path second = jar("com.example.b,com.example.c");
+        final Path third  = jar(null);
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {
+                first.toUri().toURL(),
+                second.toUri().toURL(),
+                third.toUri().toURL()
+            }, null)) {
+
+            final Map<String, List<String>> expected = new LinkedHashMap<>();
+            expected.put(name(first), asList("com.example.a", "com.example.b"));
+            expected.put(name(second), asList("com.example.b", "com.example.c"));
+
+            assertEquals(expected, ProviderManifest.declaredPackages(loader),
+                "Declared packages");
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+            Files.deleteIfExists(third);
+        }
+    }
+
+    @Test
+    @DisplayName("Narrow scan specification")
+    void narrow() {
+        final Map<String, List<String>> declared = new LinkedHashMap<>();
+        declared.put("a.jar", asList("com.example.a", "com.example.b"));
+        declared.put("b.jar", singletonList("com.example.b"));
+
+        assertSpecs(asList(
+            new String[] {"-jar:a.jar", "-jar:b.jar"},
+            new String[] {"com.example.a", "com.example.b", "jar:a.jar", "jar:b.jar"}
+        ), ProviderManifest.narrow(new String[0], declared));
+
+        assertSpecs(asList(
+            new String[] {"-com.example.a.test", "-jar:a.jar", "-jar:b.jar"},
+            new String[] {"com.example.a", "com.example.b", "jar:a.jar", "jar:b.jar", "-com.example.a.test"}
+        ), ProviderManifest.narrow(new String[] {"-com.example.a.test"}, declared));
+
+        assertSpecs(asList(
+            new String[] {"jar:b.jar", "-jar:a.jar", "-jar:b.jar"},
+            new String[] {"com.example.b", "jar:b.jar"}
+        ), ProviderManifest.narrow(new String[] {"jar:b.jar"}, declared));
+
+        final String[] explicit = {"com.example.c"};
+        assertSame(explicit, ProviderManifest.narrow(explicit, declared).get(0));
+
+        final String[] none = {};
+        assertSame(none, ProviderManifest.narrow(none, emptyMap()).get(0));
+    }
+
+    @Test
+    @DisplayName("Narrow only the declaring jars")
+    void declaredAndUndeclared() throws Exception {
+        final Path declared   = jar("com.example.a");
+        final Path undeclared = jar(null);
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[] {
+                declared.toUri().toURL(),
+                undeclared.toUri().toURL()
+            }, null)) {
+
+            // The undeclared jar (and any directory) is scanned without
+            // limiting the packages, while the declared jar is only scanned
+            // in the packages it lists.
+            assertSpecs(asList(
+                new String[] {"-jar:" + name(declared)},
+                new String[] {"com.example.a", "jar:" + name(declared)}
+            ), ProviderManifest.narrow(
+                new String[0], ProviderManifest.declaredPackages(loader)
+            ));
+        } finally {
+            Files.deleteIfExists(declared);
+            Files.deleteIfExists(undeclared);
+        }
+    }
+
+    private static void assertSpecs(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size(), "Number of scans");
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static String name(Path jar) {
+        return jar.getFileName().toString();
+    }
+
+    private static Path jar(String packages) throws Exception {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (packages != null) {
+            attributes.putValue(ProviderManifest.ATTRIBUTE, packages);
+        }
+
+        final Path file = Files.createTempFile("stiletto", ".jar");
+        try (final OutputStream out = Files.newOutputStream(file);
+             final JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            jar.flush();
+        }
+
+        return file;
+    }
+}
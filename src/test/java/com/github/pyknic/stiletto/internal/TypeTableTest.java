@@ -0,0 +1,71 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("TypeTable")
+class TypeTableTest {
+
+    private static final Class<?>[] TYPES = {
+        Object.class, String.class, Integer.class, Long.class, Short.class,
+        Byte.class, Double.class, Float.class, Character.class, Boolean.class,
+        Number.class, CharSequence.class, Comparable.class, Iterable.class,
+        Collection.class, List.class, Set.class, Map.class, ArrayList.class,
+        LinkedList.class, HashMap.class, TreeMap.class, HashSet.class,
+        TreeSet.class, Optional.class, Runnable.class, Thread.class,
+        StringBuilder.class, Exception.class, RuntimeException.class
+    };
+
+    @Test
+    @DisplayName("Empty")
+    void empty() {
+        final TypeTable table = new TypeTable(emptyMap());
+        for (final Class<?> type : TYPES) {
+            assertNull(table.get(type), type.getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup")
+    void lookup() {
+        // Only insert every other type so that misses are tested as well.
+        final Map<Class<?>, Object> entries = new HashMap<>();
+        for (int i = 0; i < TYPES.length; i += 2) {
+            entries.put(TYPES[i], "v" + i);
+        }
+
+        final TypeTable table = new TypeTable(entries);
+        for (int i = 0; i < TYPES.length; i++) {
+            if (i % 2 == 0) {
+                assertEquals("v" + i, table.get(TYPES[i]), TYPES[i].getName());
+            } else {
+                assertNull(table.get(TYPES[i]), TYPES[i].getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import com.github.pyknic.stiletto.InjectorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("DependencyResolver")
+class DependencyResolverTest {
+
+    private static final int SIZE = 10_000;
+
+    @Test
+    @DisplayName("Chain")
+    void chain() {
+        // Register the chain backwards so that every node depends on a node
+        // that is added after it.
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        for (int i = SIZE - 1; i > 0; i--) {
+            add(graph, "n" + i, singleton("n" + (i - 1)));
+        }
+        add(graph, "n0", emptySet());
+
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(graph);
+        assertEquals(SIZE, layers.size(), "One layer per node");
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals("n" + i, layers.get(i).get(0).getQualifier());
+        }
+    }
+
+    @Test
+    @DisplayName("Fan-out")
+    void fanOut() {
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            add(graph, "leaf" + i, singleton("root"));
+        }
+        add(graph, "root", emptySet());
+
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(graph);
+        assertEquals(2, layers.size(), "Root and leaves");
+        assertEquals("root", layers.get(0).get(0).getQualifier());
+        assertEquals(
+            IntStream.range(0, SIZE).mapToObj(i -> "leaf" + i).collect(toList()),
+            layers.get(1).stream().map(Node::getQualifier).collect(toList()),
+            "Leaves in registration order"
+        );
+    }
+
+    @Test
+    @DisplayName("Fan-in")
+    void fanIn() {
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        add(graph, "sink", IntStream.range(0, SIZE)
+            .mapToObj(i -> "source" + i)
+            .collect(toSet())
+        );
+        for (int i = 0; i < SIZE; i++) {
+            add(graph, "source" + i, emptySet());
+        }
+
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(graph);
+        assertEquals(2, layers.size(), "Sources and sink");
+        assertEquals(SIZE, layers.get(0).size());
+        assertEquals("sink", layers.get(1).get(0).getQualifier());
+    }
+
+    @Test
+    @DisplayName("Alternatives")
+    void alternatives() {
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        final Set<Node<?>> alternatives = new LinkedHashSet<>();
+        alternatives.add(new TestNode("a", singleton("missing")));
+        alternatives.add(new TestNode("a", singleton("b")));
+        graph.put("a", alternatives);
+        add(graph, "b", emptySet());
+
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(graph);
+        assertEquals(2, layers.size());
+        assertEquals(singleton("b"), layers.get(1).get(0).getDependencies());
+    }
+
+    @Test
+    @DisplayName("Selection order")
+    void selectionOrder() {
+        // Both alternatives are ready in the same layer, but the dependency
+        // of the second one is resolved first.
+        final Map<String, Set<Node<?>>> sameLayer = new LinkedHashMap<>();
+        add(sameLayer, "a", emptySet());
+        add(sameLayer, "b", emptySet());
+        final Node<?> first = new TestNode("x", singleton("b"));
+        sameLayer.put("x", new LinkedHashSet<>(Arrays.asList(
+            first, new TestNode("x", singleton("a"))
+        )));
+
+        assertSame(first, DependencyResolver.resolve(sameLayer).get(1).get(0),
+            "First in iteration order within the same layer");
+
+        // The second alternative can be placed in an earlier layer.
+        final Map<String, Set<Node<?>>> earlierLayer = new LinkedHashMap<>();
+        add(earlierLayer, "a", emptySet());
+        add(earlierLayer, "c", singleton("a"));
+        final Node<?> earlier = new TestNode("x", singleton("a"));
+        earlierLayer.put("x", new LinkedHashSet<>(Arrays.asList(
+            new TestNode("x", singleton("c")), earlier
+        )));
+
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(earlierLayer);
+        assertEquals(2, layers.size(), "Layers");
+        assertTrue(layers.get(1).contains(earlier), "Earliest layer wins");
+    }
+
+    @Test
+    @DisplayName("Unresolvable")
+    void unresolvable() {
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        add(graph, "a", singleton("b"));
+        add(graph, "b", singleton("a"));
+        add(graph, "c", emptySet());
+
+        final InjectorException ex = assertThrows(InjectorException.class,
+            () -> DependencyResolver.resolve(graph)
+        );
+
+        assertTrue(ex.getMessage().contains("[a, b]"), ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("External")
+    void external() {
+        final Map<String, Set<Node<?>>> graph = new LinkedHashMap<>();
+        add(graph, "a", new HashSet<>(Arrays.asList("parent", "b")));
+        add(graph, "b", emptySet());
+
+        // "b" is provided by the graph itself, so it must still be resolved
+        // first even though it also exists externally.
+        final List<List<Node<?>>> layers = DependencyResolver.resolve(
+            graph, new QualifierTable(), name -> true
+        );
+
+        assertEquals(2, layers.size(), "External dependency is satisfied");
+        assertEquals("b", layers.get(0).get(0).getQualifier());
+        assertEquals("a", layers.get(1).get(0).getQualifier());
+
+        assertThrows(InjectorException.class, () -> DependencyResolver.resolve(
+            graph, new QualifierTable(), "b"::equals
+        ));
+    }
+
+    private static void add(Map<String, Set<Node<?>>> graph,
+                            String qualifier,
+                            Set<String> dependencies) {
+        graph.put(qualifier, singleton(new TestNode(qualifier, dependencies)));
+    }
+
+    private static final class TestNode implements Node<Object> {
+
+        private final String qualifier;
+        private final Set<String> dependencies;
+
+        TestNode(String qualifier, Set<String> dependencies) {
+            this.qualifier    = qualifier;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public String getQualifier() {
+            return qualifier;
+        }
+
+        @Override
+        public Class<Object> getType() {
+            return Object.class;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public Supplier<Object> creator(Map<String, Object> dependencies) {
+            return Object::new;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("QualifierTable")
+class QualifierTableTest {
+
+    @Test
+    @DisplayName("Intern")
+    void intern() {
+        final QualifierTable table = new QualifierTable();
+        final Qualifier a = table.intern("a");
+        final Qualifier b = table.intern("b");
+
+        assertSame(a, table.intern("a"), "Same instance for same name");
+        assertSame(b, table.find("b"), "Find interned qualifier");
+        assertNull(table.find("c"), "Find unknown qualifier");
+        assertEquals(2, table.size(), "No new qualifier for known names");
+    }
+
+    @Test
+    @DisplayName("Dense ids")
+    void denseIds() {
+        final QualifierTable table = new QualifierTable();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, table.intern("q" + i).getId(), "Id of q" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("q" + i, table.get(i).getName(), "Name of id " + i);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("ForkJoinUtil")
+class ForkJoinUtilTest {
+
+    @Test
+    @DisplayName("Every index once")
+    void everyIndexOnce() {
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (final int length : new int[] {0, 1, 2, 11, 12, 1000}) {
+                final AtomicIntegerArray visits = new AtomicIntegerArray(length);
+                ForkJoinUtil.forEachChunk(pool, length, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        visits.incrementAndGet(i);
+                    }
+                });
+
+                for (int i = 0; i < length; i++) {
+                    assertEquals(1, visits.get(i), "Index " + i + " of " + length);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Chunks run in pool")
+    void chunksRunInPool() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ForkJoinUtil.forEachChunk(pool, 100, (from, to) -> {
+                final Thread thread = Thread.currentThread();
+                assertTrue(thread instanceof ForkJoinWorkerThread
+                    && ((ForkJoinWorkerThread) thread).getPool() == pool,
+                    "Chunk " + from + " to " + to + " runs in the pool"
+                );
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.util;
+
+import com.github.pyknic.stiletto.testtype.CompAImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.AbstractList;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("MethodHandleUtil")
+class MethodHandleUtilTest {
+
+    private static final class Hidden {
+        private final String text;
+        private final int number;
+
+        private Hidden(String text, int number) {
+            this.text   = text;
+            this.number = number;
+        }
+    }
+
+    @Test
+    @DisplayName(".supplierFactory(Constructor) (public)")
+    void supplierFactoryPublic() throws Throwable {
+        final Constructor<CompAImpl> constructor = CompAImpl.class.getConstructor();
+        final Optional<MethodHandle> factory =
+            MethodHandleUtil.supplierFactory(constructor);
+
+        assertTrue(factory.isPresent(), "Generated");
+        assertSame(factory.get(),
+            MethodHandleUtil.supplierFactory(constructor).get(),
+            "Only generated once"
+        );
+
+        final Supplier<?> supplier = (Supplier<?>) factory.get().invoke();
+        final Object first = supplier.get();
+        assertEquals(CompAImpl.class, first.getClass(), "Type");
+        assertNotSame(first, supplier.get(), "New instance every time");
+    }
+
+    @Test
+    @DisplayName(".supplierFactory(Constructor) (private)")
+    void supplierFactoryPrivate() throws Throwable {
+        final Optional<MethodHandle> factory = MethodHandleUtil.supplierFactory(
+            Hidden.class.getDeclaredConstructor(String.class, int.class)
+        );
+
+        // Private constructors can only be accessed from Java 9.
+        if (Stream.of(MethodHandles.class.getMethods())
+                .anyMatch(m -> m.getName().equals("privateLookupIn"))) {
+
+            assertTrue(factory.isPresent(), "Generated");
+            final Supplier<?> supplier =
+                (Supplier<?>) factory.get().invokeWithArguments("text", 42);
+
+            final Hidden created = (Hidden) supplier.get();
+            assertEquals("text", created.text, "Reference parameter");
+            assertEquals(42, created.number, "Primitive parameter");
+        }
+    }
+
+    @Test
+    @DisplayName(".supplierFactory(Constructor) (abstract)")
+    void supplierFactoryAbstract() throws Exception {
+        assertFalse(MethodHandleUtil.supplierFactory(
+            AbstractList.class.getDeclaredConstructor()
+        ).isPresent(), "Not generated");
+    }
+}
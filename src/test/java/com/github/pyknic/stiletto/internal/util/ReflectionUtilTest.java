@@ -0,0 +1,116 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.internal.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@DisplayName("ReflectionUtil")
+class ReflectionUtilTest {
+
+    private static final Class<?>[] TYPES = {
+        Object.class, String.class, Integer.class, ArrayList.class,
+        LinkedList.class, HashMap.class, LinkedHashMap.class, TreeSet.class,
+        ConcurrentHashMap.class, Runnable.class, List.class, Thread.class,
+        RuntimeException.class, Child.class
+    };
+
+    private static class Parent {
+        private int first;
+        protected String second;
+    }
+
+    private static final class Child extends Parent implements Comparable<Child> {
+        private long third;
+
+        @Override
+        public int compareTo(Child o) {
+            return Long.compare(third, o.third);
+        }
+    }
+
+    @Test
+    @DisplayName("Ancestors")
+    void ancestors() {
+        for (final Class<?> type : TYPES) {
+            assertEquals(
+                expectedAncestors(type).distinct().collect(toList()),
+                ReflectionUtil.traverseAncestors(type).collect(toList()),
+                type.getName()
+            );
+
+            assertSame(
+                ReflectionUtil.ancestors(type),
+                ReflectionUtil.ancestors(type),
+                "Cached " + type.getName()
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Fields")
+    void fields() throws Exception {
+        assertArrayEquals(new Field[] {
+            Parent.class.getDeclaredField("first"),
+            Parent.class.getDeclaredField("second"),
+            Child.class.getDeclaredField("third")
+        }, ReflectionUtil.fields(Child.class));
+
+        assertSame(
+            ReflectionUtil.fields(Child.class),
+            ReflectionUtil.fields(Child.class),
+            "Cached"
+        );
+
+        for (final Class<?> type : TYPES) {
+            assertEquals(
+                expectedFields(type).collect(toList()),
+                ReflectionUtil.traverseFields(type).collect(toList()),
+                type.getName()
+            );
+        }
+    }
+
+    private static Stream<Class<?>> expectedAncestors(Class<?> type) {
+        return Stream.concat(
+            Stream.of(type),
+            Stream.concat(
+                Stream.of(type.getSuperclass()).filter(Objects::nonNull),
+                Stream.of(type.getInterfaces())
+            ).flatMap(ReflectionUtilTest::expectedAncestors)
+        );
+    }
+
+    private static Stream<Field> expectedFields(Class<?> type) {
+        return type == null ? Stream.empty() : Stream.concat(
+            expectedFields(type.getSuperclass()),
+            Stream.of(type.getDeclaredFields())
+        );
+    }
+}
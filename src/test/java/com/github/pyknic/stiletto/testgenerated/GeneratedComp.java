@@ -0,0 +1,40 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.testgenerated;
+
+import com.github.pyknic.stiletto.Inject;
+import com.github.pyknic.stiletto.testtype.CompA;
+
+/**
+ * Type that the annotation processor can generate a factory for.
+ *
+ * @author Emil Forslund
+ * @since 1.0.5
+ */
+public class GeneratedComp {
+    public final CompA constructed;
+    @Inject("a") CompA injected;
+
+    @Inject
+    GeneratedComp(@Inject("a2") CompA constructed) {
+        this.constructed = constructed;
+    }
+
+    public CompA getInjected() {
+        return injected;
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.testgenerated;
+
+import com.github.pyknic.stiletto.Inject;
+
+/**
+ * Type with primitive dependencies that the annotation processor can generate
+ * a factory for.
+ *
+ * @author Emil Forslund
+ * @since 1.0.5
+ */
+public class GeneratedPrimitive {
+    private final long longValue;
+    @Inject int intValue;
+
+    @Inject
+    GeneratedPrimitive(long longValue) {
+        this.longValue = longValue;
+    }
+
+    public long getLong() {
+        return longValue;
+    }
+
+    public int getInt() {
+        return intValue;
+    }
+}
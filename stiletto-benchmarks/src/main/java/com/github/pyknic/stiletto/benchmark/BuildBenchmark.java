@@ -0,0 +1,57 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.Injector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link com.github.pyknic.stiletto.InjectorBuilder#build()} for
+ * generated graphs of different shapes and sizes. Every invocation includes
+ * the reflective analysis done when types are added to the builder.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "RANDOM"})
+    public GraphShape shape;
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private SyntheticGraph graph;
+
+    @Setup
+    public void setup() {
+        graph = SyntheticGraph.compile(shape, size);
+    }
+
+    @Benchmark
+    public Injector build() {
+        return graph.register(Injector.builder()).build();
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.Inject;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hand-written components used by the benchmarks that don't need a generated
+ * graph.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class Components {
+
+    public interface Repository {}
+
+    public interface Service {}
+
+    public static final class RepositoryImpl implements Repository {}
+
+    public static final class ServiceImpl implements Service {
+        private final Repository repository;
+
+        public ServiceImpl(Repository repository) {
+            this.repository = requireNonNull(repository);
+        }
+    }
+
+    /**
+     * Typical request-scoped type that is not registered in the injector, but
+     * created on demand with a constructor parameter and an injected field.
+     */
+    public static final class Handler {
+        private final Service service;
+        private @Inject Repository repository;
+
+        public Handler(Service service) {
+            this.service = service;
+        }
+    }
+
+    /**
+     * Deep class hierarchy with an injected field on every level.
+     */
+    public static class Level0 { private @Inject Repository repository0; }
+    public static class Level1 extends Level0 { private @Inject Service service1; }
+    public static class Level2 extends Level1 { private @Inject Repository repository2; }
+    public static class Level3 extends Level2 { private @Inject Service service3; }
+    public static class Level4 extends Level3 { private @Inject Repository repository4; }
+    public static class Level5 extends Level4 { private @Inject Service service5; }
+
+    /**
+     * Should never be invoked.
+     */
+    private Components() {}
+}
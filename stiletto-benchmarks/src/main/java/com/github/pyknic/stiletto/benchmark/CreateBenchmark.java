@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.Injector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.github.pyknic.stiletto.benchmark.Components.*;
+
+/**
+ * Measures creating new instances of a type that is not registered in the
+ * injector, both through {@link Injector#create(Class)} and through a
+ * {@link Injector#creator(Class) creator} that is obtained once. The batch
+ * benchmarks report the time per created instance.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CreateBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private Injector injector;
+    private Supplier<Handler> creator;
+    private Service service;
+
+    @Setup
+    public void setup() {
+        injector = Injector.builder()
+            .withType(RepositoryImpl.class)
+            .withType(ServiceImpl.class)
+            .build();
+
+        creator = injector.creator(Handler.class);
+        service = injector.getOrThrow(Service.class);
+    }
+
+    @Benchmark
+    public Handler create() {
+        return injector.create(Handler.class);
+    }
+
+    @Benchmark
+    public Handler creator() {
+        return creator.get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Handler[] createLoop() {
+        final Handler[] handlers = new Handler[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            handlers[i] = injector.create(Handler.class);
+        }
+        return handlers;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Handler> createMany() {
+        return injector.createMany(Handler.class, BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Handler[] fill() {
+        return injector.fill(new Handler[BATCH]);
+    }
+
+    /**
+     * Baseline that creates the instance without the injector.
+     *
+     * @return  the created instance
+     */
+    @Benchmark
+    public Handler constructor() {
+        return new Handler(service);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * The different shapes of synthetic dependency graphs that are used in the
+ * benchmarks. Every shape generates, for each node, the indexes of the nodes
+ * that it depends on. A node only ever depends on nodes with a lower index.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public enum GraphShape {
+
+    /**
+     * Every node depends on the node before it.
+     */
+    CHAIN {
+        @Override
+        int[] dependenciesOf(int node, Random random) {
+            return node == 0 ? new int[0] : new int[] {node - 1};
+        }
+    },
+
+    /**
+     * Every node depends on the first node.
+     */
+    FAN_OUT {
+        @Override
+        int[] dependenciesOf(int node, Random random) {
+            return node == 0 ? new int[0] : new int[] {0};
+        }
+    },
+
+    /**
+     * Every node depends on up to three randomly selected nodes before it.
+     */
+    RANDOM {
+        @Override
+        int[] dependenciesOf(int node, Random random) {
+            return IntStream.generate(() -> random.nextInt(node))
+                .limit(node == 0 ? 0 : 3)
+                .distinct()
+                .toArray();
+        }
+    };
+
+    /**
+     * Generates the dependencies of a graph of the specified size. The same
+     * shape and size always produces the same graph.
+     *
+     * @param size  the number of nodes
+     * @return      the indexes of the dependencies of every node
+     */
+    public int[][] generate(int size) {
+        final Random random = new Random(42);
+        final int[][] dependencies = new int[size][];
+        for (int i = 0; i < size; i++) {
+            dependencies[i] = dependenciesOf(i, random);
+        }
+        return dependencies;
+    }
+
+    abstract int[] dependenciesOf(int node, Random random);
+}
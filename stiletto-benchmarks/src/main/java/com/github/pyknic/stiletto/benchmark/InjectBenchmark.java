@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.Injector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.pyknic.stiletto.benchmark.Components.*;
+
+/**
+ * Measures {@link Injector#inject(Object)} on instances with a shallow and a
+ * deep class hierarchy. The batch benchmarks inject an array of instances of
+ * both classes and report the time per instance.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InjectBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private Injector injector;
+    private Level0 shallow;
+    private Level5 deep;
+    private Object[] batch;
+
+    @Setup
+    public void setup() {
+        injector = Injector.builder()
+            .withType(RepositoryImpl.class)
+            .withType(ServiceImpl.class)
+            .build();
+
+        shallow = new Level0();
+        deep    = new Level5();
+        batch   = new Object[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = i < BATCH / 2 ? new Level0() : new Level5();
+        }
+    }
+
+    @Benchmark
+    public Level0 injectShallow() {
+        return injector.inject(shallow);
+    }
+
+    @Benchmark
+    public Level5 injectDeep() {
+        return injector.inject(deep);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object[] injectLoop() {
+        for (final Object instance : batch) {
+            injector.inject(instance);
+        }
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object[] injectAll() {
+        return injector.injectAll(batch);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.Injector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.pyknic.stiletto.benchmark.Components.*;
+
+/**
+ * Measures looking up instances in a built injector by type and by
+ * qualifier.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LookupBenchmark {
+
+    private Injector injector;
+
+    @Setup
+    public void setup() {
+        injector = Injector.builder()
+            .withType(RepositoryImpl.class)
+            .withType(ServiceImpl.class, "service")
+            .build();
+    }
+
+    @Benchmark
+    public Optional<Service> getByType() {
+        return injector.get(Service.class);
+    }
+
+    @Benchmark
+    public Service getOrThrowByType() {
+        return injector.getOrThrow(Service.class);
+    }
+
+    @Benchmark
+    public Optional<Service> getByQualifier() {
+        return injector.get("service");
+    }
+
+    @Benchmark
+    public boolean hasMissingType() {
+        return injector.has(Handler.class);
+    }
+}
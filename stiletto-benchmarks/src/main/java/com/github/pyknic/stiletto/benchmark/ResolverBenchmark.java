@@ -0,0 +1,113 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.internal.graph.DependencyResolver;
+import com.github.pyknic.stiletto.internal.graph.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the {@link DependencyResolver} in isolation on graphs of nodes that
+ * don't have any classes behind them, so that the graphs can be much larger
+ * than in {@link BuildBenchmark}. Every qualifier can have more than one node
+ * to measure the selection between alternative constructors. The extra nodes
+ * have one more dependency than the first one, so they are never selected.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResolverBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "RANDOM"})
+    public GraphShape shape;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"1", "3"})
+    public int alternatives;
+
+    private Map<String, Set<Node<?>>> graph;
+
+    @Setup
+    public void setup() {
+        final int[][] dependencies = shape.generate(size);
+        graph = new LinkedHashMap<>();
+        for (int i = size - 1; i >= 0; i--) {
+            final Set<String> deps = new HashSet<>();
+            for (final int dep : dependencies[i]) {
+                deps.add("c" + dep);
+            }
+
+            final Set<Node<?>> nodes = new LinkedHashSet<>();
+            nodes.add(new SyntheticNode("c" + i, Collections.unmodifiableSet(deps)));
+            for (int j = 1; j < alternatives; j++) {
+                final Set<String> more = new HashSet<>(deps);
+                more.add("c" + (size + j));
+                nodes.add(new SyntheticNode("c" + i, Collections.unmodifiableSet(more)));
+            }
+
+            graph.put("c" + i, nodes);
+        }
+    }
+
+    @Benchmark
+    public List<List<Node<?>>> resolve() {
+        return DependencyResolver.resolve(graph);
+    }
+
+    private static final class SyntheticNode implements Node<Object> {
+
+        private final String qualifier;
+        private final Set<String> dependencies;
+
+        SyntheticNode(String qualifier, Set<String> dependencies) {
+            this.qualifier    = qualifier;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public String getQualifier() {
+            return qualifier;
+        }
+
+        @Override
+        public Class<Object> getType() {
+            return Object.class;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public Supplier<Object> creator(Map<String, Object> dependencies) {
+            return Object::new;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ *
+ * Copyright (c) 2017, Emil Forslund. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); You may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.pyknic.stiletto.benchmark;
+
+import com.github.pyknic.stiletto.InjectorBuilder;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * A graph of generated component classes. The classes are generated from a
+ * {@link GraphShape} and compiled in memory, so that graphs of any size can be
+ * benchmarked without checking thousands of classes into the repository.
+ * <p>
+ * Node {@code i} is compiled into a class named {@code Component<i>} that is
+ * registered under the qualifier {@code "c<i>"}. The nodes are registered
+ * backwards so that every component is added before its dependencies.
+ * <p>
+ * Compiling a graph requires a JDK.
+ *
+ * @author Emil Forslund
+ * @since  1.0.5
+ */
+public final class SyntheticGraph {
+
+    private static final String PACKAGE = "synthetic";
+
+    /**
+     * Generates and compiles a graph of the specified shape and size.
+     *
+     * @param shape  the shape
+     * @param size   the number of components
+     * @return       the compiled graph
+     */
+    public static SyntheticGraph compile(GraphShape shape, int size) {
+        final int[][] dependencies = shape.generate(size);
+        final List<JavaFileObject> sources = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sources.add(new Source(i, dependencies[i]));
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException(
+                "Synthetic graphs can only be compiled when running on a JDK."
+            );
+        }
+
+        final MemoryFileManager files = new MemoryFileManager(
+            compiler.getStandardFileManager(null, null, null)
+        );
+
+        final boolean success = compiler.getTask(null, files, null,
+            Arrays.asList("-classpath", System.getProperty("java.class.path")),
+            null, sources
+        ).call();
+
+        if (!success) {
+            throw new IllegalStateException(
+                "Failed to compile synthetic graph " + shape + "(" + size + ")."
+            );
+        }
+
+        final MemoryClassLoader loader = new MemoryClassLoader(files.classes);
+        final List<Class<?>> types = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                types.add(loader.loadClass(PACKAGE + ".Component" + i));
+            }
+        } catch (final ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return new SyntheticGraph(types);
+    }
+
+    private final List<Class<?>> types;
+
+    private SyntheticGraph(List<Class<?>> types) {
+        this.types = Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Returns the generated component classes, ordered by node index.
+     *
+     * @return  the component classes
+     */
+    public List<Class<?>> types() {
+        return types;
+    }
+
+    /**
+     * Adds all the components to the specified builder, starting with the
+     * last one.
+     *
+     * @param builder  the builder to add components to
+     * @return         the same builder
+     */
+    public InjectorBuilder register(InjectorBuilder builder) {
+        for (int i = types.size() - 1; i >= 0; i--) {
+            builder.withType(types.get(i), "c" + i);
+        }
+        return builder;
+    }
+
+    /**
+     * In-memory source code for a single component.
+     */
+    private static final class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        Source(int index, int[] dependencies) {
+            super(URI.create("string:///" + PACKAGE + "/Component" + index +
+                Kind.SOURCE.extension), Kind.SOURCE);
+
+            final StringBuilder params = new StringBuilder();
+            final StringBuilder values = new StringBuilder();
+            for (int i = 0; i < dependencies.length; i++) {
+                if (i > 0) {
+                    params.append(", ");
+                    values.append(", ");
+                }
+                params.append("@Inject(\"c").append(dependencies[i])
+                    .append("\") Object d").append(i);
+                values.append('d').append(i);
+            }
+
+            this.code =
+                "package " + PACKAGE + ";\n" +
+                "import com.github.pyknic.stiletto.Inject;\n" +
+                "public final class Component" + index + " {\n" +
+                "    private final Object[] dependencies;\n" +
+                "    @Inject\n" +
+                "    public Component" + index + "(" + params + ") {\n" +
+                "        this.dependencies = new Object[] {" + values + "};\n" +
+                "    }\n" +
+                "}\n";
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    /**
+     * File manager that keeps the compiled classes in memory.
+     */
+    private static final class MemoryFileManager
+    extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ByteArrayOutputStream> classes =
+            new HashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location,
+                                                   String className,
+                                                   JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+
+            return new SimpleJavaFileObject(URI.create("bytes:///" +
+                className.replace('.', '/') + kind.extension), kind) {
+
+                @Override
+                public OutputStream openOutputStream() {
+                    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    classes.put(className, out);
+                    return out;
+                }
+            };
+        }
+    }
+
+    /**
+     * Class loader that defines classes from the compiled bytes.
+     */
+    private static final class MemoryClassLoader extends ClassLoader {
+
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        MemoryClassLoader(Map<String, ByteArrayOutputStream> classes) {
+            super(SyntheticGraph.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name)
+        throws ClassNotFoundException {
+            final ByteArrayOutputStream bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            final byte[] code = bytes.toByteArray();
+            return defineClass(name, code, 0, code.length);
+        }
+    }
+}